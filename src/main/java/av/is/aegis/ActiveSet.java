@@ -0,0 +1,163 @@
+package av.is.aegis;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bitset of the slots that need ticking: slots that received stimulation, are still decaying or are refractory.
+ *
+ * The slots are split into contiguous ranges, each owned by one tick thread which visits only the set bits
+ * of its range and clears a bit once its slot has settled. Every owner but the last gets {@code size / owners} slots
+ * and the last one the rest, so with fewer slots than owners the last one owns them all, until the ranges are
+ * {@link #divide(TickBalancer) divided} anew. The schedulers take the ranges from {@link #from(int)} and {@link #to(int)},
+ * so they tick exactly the slots this set assigns. Any thread may set a bit; setting the first bit
+ * of a range whose owner is {@link #await(int, long) waiting} wakes the owner up.
+ */
+class ActiveSet {
+
+    private final AtomicLongArray words;
+    private final int owners;
+
+    /**
+     * The first slot of the range of every owner, followed by the number of slots. Replaced as a whole.
+     */
+    private volatile int[] bounds;
+    private volatile int divisions;
+
+    private final Thread[] threads;
+    private final AtomicIntegerArray sleeping;
+
+    ActiveSet(int size, int owners) {
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+        this.owners = owners;
+        int piece = size / owners;
+        int[] bounds = new int[owners + 1];
+        for(int owner = 0; owner < owners; owner++) {
+            bounds[owner] = owner * piece;
+        }
+        bounds[owners] = size;
+        this.bounds = bounds;
+
+        this.threads = new Thread[owners];
+        this.sleeping = new AtomicIntegerArray(owners);
+    }
+
+    void bind(int owner, Thread thread) {
+        threads[owner] = thread;
+    }
+
+    int from(int owner) {
+        return bounds[owner];
+    }
+
+    int to(int owner) {
+        return bounds[owner + 1];
+    }
+
+    /**
+     * @return the last owner whose range starts at or before the slot, which is the one owning it
+     */
+    int owner(int slot) {
+        int[] bounds = this.bounds;
+        int low = 0;
+        int high = owners - 1;
+        while(low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if(bounds[middle] <= slot) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Takes the ranges of the workers of the balancer and wakes every owner to pick up its new range.
+     * Called while no owner ticks.
+     */
+    void divide(TickBalancer balancer) {
+        int[] bounds = new int[owners + 1];
+        for(int owner = 0; owner < owners; owner++) {
+            bounds[owner] = balancer.from(owner);
+        }
+        bounds[owners] = balancer.to(owners - 1);
+        this.bounds = bounds;
+        divisions++;
+        for(Thread thread : threads) {
+            if(thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * @return the number of times the ranges were divided anew, for the owners to notice their ranges changed
+     */
+    int divisions() {
+        return divisions;
+    }
+
+    void activate(int slot) {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        long current;
+        do {
+            current = words.get(word);
+            if((current & bit) != 0) {
+                return;
+            }
+        } while(!words.compareAndSet(word, current, current | bit));
+
+        int owner = owner(slot);
+        if(sleeping.get(owner) != 0) {
+            LockSupport.unpark(threads[owner]);
+        }
+    }
+
+    void deactivate(int slot) {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        long current;
+        do {
+            current = words.get(word);
+            if((current & bit) == 0) {
+                return;
+            }
+        } while(!words.compareAndSet(word, current, current & ~bit));
+    }
+
+    /**
+     * @return the first active slot in {@code [from, end)}, or -1 if there is none
+     */
+    int next(int from, int end) {
+        if(from >= end) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = words.get(word) & (-1L << from);
+        while(true) {
+            if(bits != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return slot < end ? slot : -1;
+            }
+            if(++word << 6 >= end) {
+                return -1;
+            }
+            bits = words.get(word);
+        }
+    }
+
+    /**
+     * Parks the owner of the range until a slot of the range is activated or the timeout elapses,
+     * unless a slot of the range is active already.
+     */
+    void await(int owner, int start, int end, long nanos) {
+        sleeping.set(owner, 1);
+        if(next(start, end) == -1) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        sleeping.set(owner, 0);
+    }
+}
@@ -0,0 +1,61 @@
+package av.is.aegis;
+
+/**
+ * Sums the stimulation transmitted by a tick thread per target and hands a single stimulation per target
+ * to the underlying sink once the tick is over, so delivery scales with the active targets of a tick
+ * rather than with its active synapses.
+ *
+ * Relay targets are passed through immediately, so output and ganglion listeners still see every stimulation.
+ * Owned and used by a single tick thread.
+ */
+class CoalescingSink implements SpikeSink {
+
+    private final NeuronState state;
+    private final SpikeSink downstream;
+
+    private final double[] pending;
+    private final boolean[] touched;
+    private final int[] targets;
+    private int size;
+
+    CoalescingSink(NeuronState state, SpikeSink downstream) {
+        this.state = state;
+        this.downstream = downstream;
+
+        this.pending = new double[state.size()];
+        this.touched = new boolean[state.size()];
+        this.targets = new int[state.size()];
+    }
+
+    @Override
+    public void deliver(int target, double stimulation, int delay) {
+        if(state.isRelay(target)) {
+            downstream.deliver(target, stimulation, delay);
+            return;
+        }
+        if(!touched[target]) {
+            touched[target] = true;
+            targets[size++] = target;
+        }
+        pending[target] += stimulation;
+    }
+
+    /**
+     * Delivers the summed stimulation of every target touched since the last flush.
+     *
+     * @return the number of delivered stimulations
+     */
+    int flush() {
+        int flushed = size;
+        for(int i = 0; i < flushed; i++) {
+            int target = targets[i];
+            double stimulation = pending[target];
+            pending[target] = 0;
+            touched[target] = false;
+
+            downstream.deliver(target, stimulation, 0);
+        }
+        size = 0;
+        return flushed;
+    }
+}
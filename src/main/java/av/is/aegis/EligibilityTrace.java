@@ -0,0 +1,104 @@
+package av.is.aegis;
+
+/**
+ * Recent transmissions of the neurons ticked by one thread, for {@link Network.Plasticity#ELIGIBILITY_TRACE}.
+ *
+ * Every transmission through a synapse is recorded into a ring buffer with its tick, overwriting the oldest
+ * once the buffer is full. A reward changes each recorded synapse by the reward times its trace, which is the
+ * configured decay to the power of the ticks since the transmission and sums up over repeated transmissions.
+ * Transmissions whose trace has decayed below {@link #MINIMUM_TRACE} are ignored, so a reward costs as much
+ * as the recent activity of the thread rather than the size of the network.
+ *
+ * A reward may take a weight across zero. Like a synapse decayed or shifted across zero, such a synapse is removed
+ * the next time its source fires instead of transmitting with the wrong sign.
+ *
+ * Owned and used by a single tick thread, which is the only one changing the weights of its neurons.
+ */
+class EligibilityTrace {
+
+    static final int CAPACITY = 1 << 12;
+    static final double DEFAULT_DECAY = 0.9d;
+    static final double MINIMUM_TRACE = 0.01d;
+
+    private final int[] sources = new int[CAPACITY];
+    private final int[] entries = new int[CAPACITY];
+    private final long[] ticks = new long[CAPACITY];
+    private int head;
+    private int size;
+
+    /**
+     * The trace of a transmission by its age in ticks, up to the age it is ignored at.
+     */
+    private final double[] traces;
+
+    private double excitatoryApplied;
+    private double inhibitoryApplied;
+
+    EligibilityTrace(double decay) {
+        int horizon = (int) Math.ceil(Math.log(MINIMUM_TRACE) / Math.log(decay));
+        this.traces = new double[Math.max(1, horizon)];
+        for(int age = 0; age < traces.length; age++) {
+            traces[age] = Math.pow(decay, age);
+        }
+    }
+
+    void record(int source, int entry, long tick) {
+        sources[head] = source;
+        entries[head] = entry;
+        ticks[head] = tick;
+        head = (head + 1) & (CAPACITY - 1);
+        if(size < CAPACITY) {
+            size++;
+        }
+    }
+
+    /**
+     * Forgets the transmissions of the sources outside the range, once the thread no longer ticks them.
+     */
+    void retain(int from, int to) {
+        for(int i = 0; i < size; i++) {
+            int index = (head - 1 - i) & (CAPACITY - 1);
+            if(sources[index] < from || sources[index] >= to) {
+                sources[index] = -1;
+            }
+        }
+    }
+
+    /**
+     * Rewards the recorded synapses with the part of the cumulative rewards not applied by this thread yet.
+     */
+    void reward(SynapseTable synapses, double excitatoryReward, double inhibitoryReward, long now) {
+        double excitatory = excitatoryReward - excitatoryApplied;
+        double inhibitory = inhibitoryReward - inhibitoryApplied;
+        if(excitatory == 0 && inhibitory == 0) {
+            return;
+        }
+        excitatoryApplied = excitatoryReward;
+        inhibitoryApplied = inhibitoryReward;
+
+        SynapseTable.Rows rows = synapses.rows();
+        for(int i = 0; i < size; i++) {
+            int index = (head - 1 - i) & (CAPACITY - 1);
+            long age = now - ticks[index];
+            if(age >= traces.length) {
+                // Older transmissions follow, which decayed even further.
+                break;
+            }
+            int entry = entries[index];
+            double reward = entry >= 0 ? excitatory : inhibitory;
+            if(reward == 0) {
+                continue;
+            }
+            int source = sources[index];
+            if(source == -1) {
+                continue;
+            }
+            for(int j = rows.offsets[source], end = rows.offsets[source + 1]; j < end; j++) {
+                if(rows.targets.get(j) == entry) {
+                    rows.weights.add(j, reward * traces[(int) Math.max(0, age)]);
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package av.is.aegis;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event driven scheduler running on a single clock thread.
+ *
+ * Transmitted stimulation is scheduled into a {@link TimingWheel} for the tick after firing plus the delay
+ * of the synapse, and the end of the refractory period is scheduled as an event as well. A tick only visits
+ * the neurons that have events due, so neurons without incoming events cost nothing: their potential and
+ * synapse decay is caught up in one go the next time they are touched. When nothing is scheduled the clock
+ * waits for stimulation from outside instead of spinning, or hands its worker back if run by a {@link NetworkHost}.
+ */
+class EventDrivenScheduler extends TickScheduler implements Hostable {
+
+    private static final int INITIAL_EVENTS = 1 << 12;
+    private static final int INITIAL_INJECTIONS = 64;
+
+    /**
+     * Ticks skipped after an idle period, enough for any potential to decay back to the stable potential.
+     */
+    private static final int IDLE_TICKS = 64;
+
+    private final TimingWheel wheel = new TimingWheel(INITIAL_EVENTS);
+
+    private final long[] lastTick;
+
+    private final int[] touched;
+    private final long[] touchedAt;
+    private int touchedSize;
+
+    private int[] injectedSlots = new int[INITIAL_INJECTIONS];
+    private double[] injectedStimulations = new double[INITIAL_INJECTIONS];
+    private int injectedSize;
+    private int[] drainingSlots = new int[INITIAL_INJECTIONS];
+    private double[] drainingStimulations = new double[INITIAL_INJECTIONS];
+    private boolean idle;
+
+    /**
+     * Whether a {@link NetworkHost} found the clock without anything to do, as {@link #idle} for the clock thread.
+     */
+    private boolean resting;
+
+    private final SpikeSink sink;
+    private final EligibilityTrace trace;
+    private final SynapsePruning pruning;
+
+    /**
+     * The parameters of the last step, only used by the clock.
+     */
+    private Tuning tuning;
+
+    private final AtomicLong ticks = new AtomicLong();
+
+    /**
+     * The tick of the wheel, published for the synapse table.
+     */
+    private volatile long clock;
+
+    EventDrivenScheduler(NeuronState state, SynapseTable synapses, Network.Configuration configuration) {
+        super(state, synapses, configuration, 1);
+        this.lastTick = new long[state.size()];
+        this.touched = new int[state.size()];
+        this.touchedAt = new long[state.size()];
+        Arrays.fill(touchedAt, -1);
+
+        this.sink = (target, stimulation, delay) -> wheel.schedule(wheel.now() + 1 + delay, TimingWheel.SPIKE, target, stimulation);
+        synapses.clock(slot -> clock);
+        this.trace = createTrace();
+        this.pruning = pruning(0, state.size());
+        this.tuning = configuration.tuning();
+    }
+
+    @Override
+    void start() {
+        thread("Network Ticking - Event Clock").runnable(() -> {
+            while(!Thread.currentThread().isInterrupted()) {
+                if(wheel.isEmpty() && !awaitInjections()) {
+                    return;
+                }
+                step();
+                delay(configuration.tuning());
+            }
+        }).start();
+    }
+
+    @Override
+    public int run(int ticks) {
+        for(int i = 0; i < ticks; i++) {
+            if(wheel.isEmpty()) {
+                if(!hasInjections()) {
+                    resting = true;
+                    return i;
+                }
+                if(resting) {
+                    resting = false;
+                    wheel.skip(IDLE_TICKS);
+                    clock = wheel.now();
+                }
+            }
+            step();
+        }
+        return ticks;
+    }
+
+    private synchronized boolean hasInjections() {
+        return injectedSize > 0;
+    }
+
+    /**
+     * Waits for stimulation from outside while no events are scheduled, and skips the ticks of the idle period.
+     *
+     * @return whether the clock may step, or false if the clock thread was interrupted and stops
+     */
+    private synchronized boolean awaitInjections() {
+        if(injectedSize > 0) {
+            return true;
+        }
+        idle = true;
+        try {
+            while(injectedSize == 0) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            idle = false;
+        }
+        wheel.skip(IDLE_TICKS);
+        clock = wheel.now();
+        return true;
+    }
+
+    private void step() {
+        Tuning tuning = settle(0, state.size(), clock, this.tuning, configuration.tuning());
+        this.tuning = tuning;
+        int event = wheel.advance();
+        clock = wheel.now();
+        pruning.sweep(tuning);
+        synapses.mergeIfDue();
+
+        while(event != -1) {
+            int following = wheel.next(event);
+            switch (wheel.kind(event)) {
+                case TimingWheel.SPIKE:
+                    receive(wheel.slot(event), wheel.value(event));
+                    break;
+
+                case TimingWheel.REFRACTORY_EXPIRY:
+                    state.endRefractory(wheel.slot(event));
+                    break;
+            }
+            wheel.release(event);
+            event = following;
+        }
+
+        applyRewards(trace, wheel.now());
+
+        int injected = drainInjections();
+        for(int i = 0; i < injected; i++) {
+            receive(drainingSlots[i], drainingStimulations[i]);
+        }
+
+        long now = wheel.now();
+        long transmitted = 0;
+        for(int i = 0; i < touchedSize; i++) {
+            int slot = touched[i];
+            if(state.reachedThreshold(slot)) {
+                transmitted += fire(slot, now, tuning);
+            }
+        }
+        touchedSize = 0;
+        if(transmitted > 0) {
+            this.transmitted.addAndGet(transmitted);
+        }
+        ticked(ticks.incrementAndGet());
+    }
+
+    private void receive(int slot, double stimulation) {
+        if(state.isRelay(slot)) {
+            state.neuron(slot).recept(stimulation);
+            return;
+        }
+        long now = wheel.now();
+        state.decay(slot, now - lastTick[slot]);
+        lastTick[slot] = now;
+        state.integrate(slot, stimulation);
+
+        if(touchedAt[slot] != now) {
+            touchedAt[slot] = now;
+            touched[touchedSize++] = slot;
+        }
+    }
+
+    private int fire(int slot, long now, Tuning tuning) {
+        Neuron neuron = state.neuron(slot);
+        if(tuning.synapseDecaying) {
+            neuron.decaySynapses(now, tuning);
+        }
+
+        int transmitted = neuron.stimulate(sink, trace, now, tuning);
+        wheel.schedule(now + 2, TimingWheel.REFRACTORY_EXPIRY, slot, 0);
+        return transmitted;
+    }
+
+    private synchronized int drainInjections() {
+        int size = injectedSize;
+        if(size == 0) {
+            return 0;
+        }
+        int[] slots = injectedSlots;
+        double[] stimulations = injectedStimulations;
+        injectedSlots = drainingSlots;
+        injectedStimulations = drainingStimulations;
+        drainingSlots = slots;
+        drainingStimulations = stimulations;
+        injectedSize = 0;
+        return size;
+    }
+
+    @Override
+    synchronized void inject(int slot, double stimulation) {
+        if(injectedSize == injectedSlots.length) {
+            injectedSlots = Arrays.copyOf(injectedSlots, injectedSize * 2);
+            injectedStimulations = Arrays.copyOf(injectedStimulations, injectedSize * 2);
+        }
+        injectedSlots[injectedSize] = slot;
+        injectedStimulations[injectedSize] = stimulation;
+        injectedSize++;
+
+        if(idle) {
+            notify();
+        }
+    }
+
+    @Override
+    int getAwaitingStimulations() {
+        return wheel.pending();
+    }
+
+    @Override
+    long getTicks() {
+        return ticks.get();
+    }
+}
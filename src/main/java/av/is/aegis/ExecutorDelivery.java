@@ -0,0 +1,119 @@
+package av.is.aegis;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers every stimulation by a task of its own on an {@link Executor}.
+ *
+ * The stimulations waiting for a task are kept in a queue owned here rather than in the tasks, and every task delivers
+ * the oldest waiting stimulation once it starts. So every executor reports the same queue depth and is bounded
+ * the same way, whether it queues tasks, forks them or runs them right away, and the oldest stimulation can be
+ * evicted without cancelling a task of the executor.
+ */
+class ExecutorDelivery implements SpikeSink {
+
+    private final NeuronState state;
+    private final Executor executor;
+    private final int capacity;
+    private final Network.OverflowPolicy policy;
+    private final AtomicLong dropped;
+    private final SpikeRing.Receiver overflow;
+
+    private final Queue<Stimulation> waiting = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Places reserved in the queue, one for every task submitted and not started yet, never beyond the capacity.
+     */
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private final Runnable stimulator = this::stimulate;
+
+    /**
+     * @param overflow receives the stimulation to coalesce while the executor is full
+     */
+    ExecutorDelivery(NeuronState state, Executor executor, int capacity, Network.OverflowPolicy policy, AtomicLong dropped, SpikeRing.Receiver overflow) {
+        this.state = state;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.dropped = dropped;
+        this.overflow = overflow;
+    }
+
+    @Override
+    public void deliver(int target, double stimulation, int delay) {
+        Stimulation queued = new Stimulation(target, stimulation);
+        while(!reserve()) {
+            switch (policy) {
+                case DROP_NEWEST:
+                    dropped.incrementAndGet();
+                    return;
+
+                case COALESCE:
+                    overflow.receive(target, stimulation);
+                    return;
+
+                case DROP_OLDEST:
+                    // Queued ahead of evicting, so a task never finds the queue empty in between, and the stimulation
+                    // takes over the task of the evicted one. It is only evicted itself if every other one
+                    // started meanwhile, in which case it takes a place of its own.
+                    waiting.add(queued);
+                    if(waiting.poll() != queued) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                    break;
+
+                case BLOCK:
+                default:
+                    LockSupport.parkNanos(1000L);
+                    break;
+            }
+        }
+        waiting.add(queued);
+        executor.execute(stimulator);
+    }
+
+    /**
+     * @return whether a place was reserved, which fails while the queue is full
+     */
+    private boolean reserve() {
+        int current;
+        do {
+            current = depth.get();
+            if(current >= capacity) {
+                return false;
+            }
+        } while(!depth.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    int pending() {
+        return depth.get();
+    }
+
+    private void stimulate() {
+        // Every task is submitted after its stimulation was queued, and evicting never leaves fewer queued than tasks.
+        Stimulation stimulation = waiting.poll();
+        depth.decrementAndGet();
+        if(stimulation != null) {
+            state.neuron(stimulation.target).recept(stimulation.stimulation);
+        }
+    }
+
+    private static class Stimulation {
+
+        private final int target;
+        private final double stimulation;
+
+        Stimulation(int target, double stimulation) {
+            this.target = target;
+            this.stimulation = stimulation;
+        }
+    }
+}
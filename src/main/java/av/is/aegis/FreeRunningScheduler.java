@@ -0,0 +1,195 @@
+package av.is.aegis;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tick threads run independently over the ranges of the slots they own in the {@link ActiveSet}, while stimulation
+ * is delivered asynchronously, either through {@link RingDelivery} or by an {@link ExecutorDelivery}.
+ *
+ * Both queue at most {@link Network.Configuration#stimulationQueueCapacity} stimulations
+ * and apply the {@link Network.OverflowPolicy} beyond that.
+ *
+ * A tick thread only visits the neurons of its slice in the {@link ActiveSet} and parks once none is left,
+ * until stimulation arrives again, so a quiet network costs no processor time.
+ *
+ * The first tick thread merges appended synapses between two of its passes, once every other tick thread has finished
+ * its pass, see {@link TickScheduler#mergeIfDue(Runnable)}. With {@link Network.TickDivision#BALANCED} it divides
+ * the slots anew the same way every {@link #BALANCE_PASSES} passes by the cost per pass a {@link TickBalancer} counted.
+ * As a slot keeps the ticks of the thread it was ticked by, every thread then continues from the latest clock.
+ */
+class FreeRunningScheduler extends TickScheduler {
+
+    static final int BALANCE_PASSES = 128;
+
+    private final RingDelivery ringDelivery;
+    private final ExecutorDelivery executorDelivery;
+    private final SpikeSink delivery;
+
+    private final ActiveSet active;
+    private final AtomicLongArray clocks;
+    private final TickBalancer balancer;
+
+    private final AtomicLong ticks = new AtomicLong();
+
+    FreeRunningScheduler(NeuronState state, SynapseTable synapses, Network.Configuration configuration, int threads, Executor executor, int deliveryThreads) {
+        super(state, synapses, configuration, threads);
+        this.active = new ActiveSet(state.size(), threads);
+        state.track(active);
+        this.clocks = new AtomicLongArray(threads);
+        synapses.clock(slot -> clocks.get(active.owner(slot)));
+        this.balancer = new TickBalancer(state, synapses, configuration, threads);
+        if(balancer.isBalancing()) {
+            active.divide(balancer);
+        }
+        if(executor == null) {
+            this.ringDelivery = new RingDelivery(state, deliveryThreads, queueCapacity(), configuration.overflowPolicy, dropped, this::coalesce);
+            this.executorDelivery = null;
+        } else {
+            this.ringDelivery = null;
+            this.executorDelivery = new ExecutorDelivery(state, executor, queueCapacity(), configuration.overflowPolicy, dropped, this::coalesce);
+        }
+        this.delivery = ringDelivery != null ? ringDelivery : executorDelivery;
+    }
+
+    @Override
+    void start() {
+        if(ringDelivery != null) {
+            ringDelivery.start(threadStatistic());
+        }
+        for(int i = 0; i < threads; i++) {
+            int finalI = i;
+            thread("Network Ticking - #" + finalI).runnable(() -> {
+                active.bind(finalI, Thread.currentThread());
+                DelayingSink delaying = new DelayingSink();
+                CoalescingSink coalescing = configuration.coalesceWithinTick ? new CoalescingSink(state, delaying) : null;
+                EligibilityTrace trace = createTrace();
+                SpikeSink sink = coalescing != null ? coalescing : delaying;
+
+                boolean balancing = balancer.isBalancing();
+                int divisions = -1;
+                int start = 0;
+                int end = 0;
+                SynapsePruning pruning = null;
+
+                Tuning tuning = configuration.tuning();
+                long now = 0;
+                long passes = 0;
+                while(true) {
+                    if(finalI == 0) {
+                        mergeIfDue(() -> {});
+                        if(balancing && ++passes % BALANCE_PASSES == 0) {
+                            exclusively(this::rebalance, () -> {});
+                        }
+                    }
+                    Tuning next = configuration.tuning();
+                    delay(next);
+                    beginWriting();
+                    if(divisions != active.divisions()) {
+                        divisions = active.divisions();
+                        start = active.from(finalI);
+                        end = active.to(finalI);
+                        pruning = pruning(start, end);
+                        if(trace != null) {
+                            trace.retain(start, end);
+                        }
+                        now = clocks.get(finalI);
+                    }
+                    clocks.lazySet(finalI, ++now);
+                    ticks.accumulateAndGet(now, Math::max);
+                    tuning = settle(start, end, now - 1, tuning, next);
+                    delaying.delayOnQueueStimulation = tuning.delayOnQueueStimulation;
+                    applyRewards(trace, now);
+                    pruning.sweep(tuning);
+
+                    long started = System.nanoTime();
+                    long transmitted = 0;
+                    for(int slot = active.next(start, end); slot != -1; slot = active.next(slot + 1, end)) {
+                        int fired = state.isMarked(slot) ? tick(slot, sink, trace, now, tuning) : 0;
+                        if(balancing) {
+                            balancer.count(slot, fired, tuning);
+                        }
+                        transmitted += fired;
+                        settle(active, slot);
+                    }
+                    if(balancing) {
+                        balancer.passed(finalI);
+                    }
+                    endWriting();
+                    if(transmitted > 0) {
+                        this.transmitted.addAndGet(transmitted);
+                    }
+                    if(coalescing != null) {
+                        coalescing.flush();
+                    }
+                    busy(finalI, System.nanoTime() - started);
+                    if(finalI == 0) {
+                        ticked(now);
+                    }
+                    if(active.next(start, end) == -1) {
+                        active.await(finalI, start, end, IDLE_PARK_NANOS);
+                    }
+                }
+            }).start();
+        }
+    }
+
+    /**
+     * Divides the slots anew by their cost and, if any slot changes its thread, moves every clock to the latest one,
+     * so no slot is ticked at a tick before one it was ticked at. Run while no tick thread writes.
+     */
+    private void rebalance() {
+        if(!balancer.rebalance()) {
+            return;
+        }
+        long latest = 0;
+        for(int i = 0; i < threads; i++) {
+            latest = Math.max(latest, clocks.get(i));
+        }
+        for(int i = 0; i < threads; i++) {
+            clocks.set(i, latest);
+        }
+        active.divide(balancer);
+    }
+
+    /**
+     * Delivers the stimulation of a single tick thread and waits {@link Tuning#delayOnQueueStimulation} after each,
+     * as of the parameters of the current pass of the thread.
+     */
+    private class DelayingSink implements SpikeSink {
+
+        private long delayOnQueueStimulation;
+
+        @Override
+        public void deliver(int target, double stimulation, int delay) {
+            delivery.deliver(target, stimulation, delay);
+
+            if(delayOnQueueStimulation > 0) {
+                try {
+                    Thread.sleep(delayOnQueueStimulation);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    @Override
+    void inject(int slot, double stimulation) {
+        state.neuron(slot).recept(stimulation);
+    }
+
+    @Override
+    int getAwaitingStimulations() {
+        if(ringDelivery != null) {
+            return ringDelivery.pending();
+        }
+        return executorDelivery.pending();
+    }
+
+    @Override
+    long getTicks() {
+        return ticks.get();
+    }
+}
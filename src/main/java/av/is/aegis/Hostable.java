@@ -0,0 +1,17 @@
+package av.is.aegis;
+
+/**
+ * A scheduler which can be ticked on the threads of a {@link NetworkHost} instead of its own threads.
+ */
+interface Hostable {
+
+    /**
+     * Runs up to the given number of ticks on the calling thread, in place of the threads of {@link TickScheduler#start()}.
+     * Never called by two threads at once, and never sleeps for {@link Network.Configuration#delayOnNetworkTicking},
+     * which the host waits instead.
+     *
+     * @return the number of ticks run, fewer than given if the network has nothing to do
+     */
+    int run(int ticks);
+
+}
@@ -0,0 +1,122 @@
+package av.is.aegis;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Append-only registry of the marked neurons, in the order they were marked.
+ *
+ * The neurons are kept in fixed size chunks which are never copied, so marking a neuron is a constant time append
+ * without a lock: a neuron claims its slot in a bitset, reserves an index, stores itself into the chunk of the index
+ * and helps publishing the length. The published {@link #size()} only covers indexes whose neuron has been stored,
+ * so a reader may iterate up to it from any thread without further synchronization.
+ */
+class MarkedNeurons {
+
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final AtomicLongArray claimed;
+    private final AtomicReferenceArray<AtomicReferenceArray<Neuron>> chunks;
+
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+
+    /**
+     * @param capacity the number of slots of the network, which bounds the number of marked neurons
+     */
+    MarkedNeurons(int capacity) {
+        this.claimed = new AtomicLongArray((capacity + 63) >>> 6);
+        this.chunks = new AtomicReferenceArray<>((capacity + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+    }
+
+    /**
+     * Appends the neuron unless it has been appended already.
+     *
+     * @return whether the neuron has been appended
+     */
+    boolean add(Neuron neuron) {
+        if(!claim(neuron.getSlot())) {
+            return false;
+        }
+        int index = reserved.getAndIncrement();
+        chunk(index >>> CHUNK_SHIFT).set(index & CHUNK_MASK, neuron);
+        publish();
+        return true;
+    }
+
+    private boolean claim(int slot) {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        long current;
+        do {
+            current = claimed.get(word);
+            if((current & bit) != 0) {
+                return false;
+            }
+        } while(!claimed.compareAndSet(word, current, current | bit));
+        return true;
+    }
+
+    private AtomicReferenceArray<Neuron> chunk(int index) {
+        AtomicReferenceArray<Neuron> chunk = chunks.get(index);
+        if(chunk == null) {
+            chunks.compareAndSet(index, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+
+    /**
+     * Advances the published length over every stored neuron. Any appending thread moves it on, so an append
+     * never waits for another one: the thread storing the neuron at the published length publishes it itself.
+     */
+    private void publish() {
+        while(true) {
+            int length = published.get();
+            if(length == reserved.get() || get(length) == null) {
+                return;
+            }
+            published.compareAndSet(length, length + 1);
+        }
+    }
+
+    private Neuron get(int index) {
+        AtomicReferenceArray<Neuron> chunk = chunks.get(index >>> CHUNK_SHIFT);
+        return chunk == null ? null : chunk.get(index & CHUNK_MASK);
+    }
+
+    /**
+     * @return the number of published neurons
+     */
+    int size() {
+        return published.get();
+    }
+
+    /**
+     * @param index an index below a {@link #size()} read before
+     */
+    Neuron neuron(int index) {
+        return chunks.get(index >>> CHUNK_SHIFT).get(index & CHUNK_MASK);
+    }
+
+    /**
+     * Visits the neurons published when the visit starts.
+     */
+    void forEach(Consumer<Neuron> consumer) {
+        for(int i = 0, size = size(); i < size; i++) {
+            consumer.accept(neuron(i));
+        }
+    }
+
+    Neuron[] toArray() {
+        Neuron[] neurons = new Neuron[size()];
+        for(int i = 0; i < neurons.length; i++) {
+            neurons[i] = neuron(i);
+        }
+        return neurons;
+    }
+}
@@ -13,15 +13,17 @@ import java.util.List;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
 
 public class Network implements NetworkForm, Serializable {
 
-    private static final Random NEURON_CHOOSER = new Random();
 
     private static final Logger LOGGER = Logger.getLogger("AEGIS-VIII-NETWORK");
 
@@ -37,15 +39,29 @@ public class Network implements NetworkForm, Serializable {
     private static final int THREAD_POOL_SIZE = 50;
     private static final int TICK_DIVISION = 5;
 
+    private static final int SYNAPSES_GROWN_PER_TICK = 16;
+
     private static final long serialVersionUID = -6723275806349768869L;
 
     private final Neuron[] neurons;
     private final Neuron[] inputNeurons;
     private final Neuron[] outputNeurons;
     private final int size;
-    private transient ThreadPoolExecutor threadPoolExecutor;
 
+    private transient NeuronState state;
+    private transient SynapseTable synapses;
+    private transient TickScheduler scheduler;
+    private transient Executor executor;
+    private transient ThreadStatistic threadStatistic = new ThreadStatistic();
+
+    private transient NetworkHost host;
+    private transient String name;
+
+    /**
+     * Only holds the marked neurons while the network is serialized, {@link #marked} registers them.
+     */
     private Neuron[] markedNeurons;
+    private transient MarkedNeurons marked;
 
     private transient boolean visualization = false;
     private transient boolean outputGraph = false;
@@ -74,14 +90,24 @@ public class Network implements NetworkForm, Serializable {
 
     private transient OutputConsumer outputConsumer;
     private transient OutputConsumer ganglionConsumer;
+    private transient LongConsumer tickConsumer;
+
+    private transient SplittableRandom random;
+    private transient Synaptogenesis synaptogenesis;
 
     private transient boolean loaded;
     private transient int threadSize;
 
+    /**
+     * Parameters of a network. Those read while the network runs are taken as a {@link Tuning} when it starts,
+     * so changes to them afterwards only take effect through {@link NetworkForm#tune(Consumer)}.
+     */
     public static class Configuration implements Serializable {
 
         private static final long serialVersionUID = 5562270942390906477L;
 
+        private transient volatile Tuning tuning;
+
         public int maxSynapsesForInputNeurons = 10;
         public int maxSynapsesForInterNeurons = 20;
 
@@ -104,6 +130,7 @@ public class Network implements NetworkForm, Serializable {
         public double inhibitoryDecayingRatio = 0.00001d;
 
         public long delayOnQueueStimulation = 0L;
+        public int maximumSynapseDelay = 0;
         public long delayOnNetworkTicking = 0L;
 
         public double epspMultiply = 1.06271d;
@@ -112,8 +139,64 @@ public class Network implements NetworkForm, Serializable {
         public int threadPoolSize = 50;
         public int threadSizeForTicking = 5;
 
+        public Scheduling scheduling = Scheduling.FREE_RUNNING;
+        public int partitions = 0;
+        public SpikeDelivery spikeDelivery = SpikeDelivery.RING_BUFFER;
+        public ExecutorMode executorMode = ExecutorMode.FIXED_POOL;
+        public int stimulationQueueCapacity = 0;
+        public OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        /**
+         * Sums the stimulation a tick thread transmits to the same target within a tick and delivers it once,
+         * instead of once per synapse. Applies to {@link Scheduling#FREE_RUNNING} and, between partitions,
+         * {@link Scheduling#PARTITIONED}; the other schedulings already integrate per target.
+         */
+        public boolean coalesceWithinTick = false;
+        public Accumulation accumulation = Accumulation.ATOMIC;
+        public Ticking ticking = Ticking.BLOCK;
+        public TickDivision tickDivision = TickDivision.BALANCED;
+        /**
+         * How the weights of the synapses are stored, taking effect when the network starts.
+         */
+        public Precision precision = Precision.FLOAT64;
+        /**
+         * Where the synapses are stored, taking effect when the network starts.
+         */
+        public SynapseStorage synapseStorage = SynapseStorage.HEAP;
+
+        /**
+         * Seeds every random choice of the network: the thresholds of new neurons and the synapses grown between them.
+         * With {@link Scheduling#SYNCHRONOUS} or {@link Scheduling#EVENT_DRIVEN} appended synapses are then merged
+         * after a number of ticks rather than a time, so a network stimulated at the same ticks transmits
+         * the same stimulations on every run. 0 leaves the network unseeded.
+         */
+        public long seed = 0;
+
+        /**
+         * Upper bound of synapses grown from unsaturated marked neurons per tick, or 0 for the default.
+         */
+        public int synapsesGrownPerTick = 0;
+
+        public Plasticity plasticity = Plasticity.GLOBAL;
+        /**
+         * Factor an eligibility trace decays by per tick, between 0 and 1 exclusive, or 0 for the default.
+         * Checked when the network starts.
+         */
+        public double eligibilityTraceDecay = 0;
+
         public double inhibitorySynapseCreationChance = 0.8d;
 
+        /**
+         * Strength below which the synapses of a neuron are pruned while the network ticks, or 0 to keep weak synapses.
+         * Pruning returns the capacity of the pruned synapses to synaptogenesis, and the storage they took is reclaimed
+         * by the next merge.
+         */
+        public double pruningMagnitude = 0;
+        /**
+         * Ticks after which a synapse which has not transmitted is pruned, or 0 to keep unused synapses, taking effect
+         * when the network starts. Tracking the use costs another 4 bytes per synapse.
+         */
+        public long pruningIdleTicks = 0;
+
         public final Visualization visualization = Visualization.Lazy.INSTANCE;
 
         public static class Visualization implements Serializable {
@@ -170,9 +253,261 @@ public class Network implements NetworkForm, Serializable {
             public boolean markedNeurons = true;
             public boolean awaitingStimulationQueue = true;
             public boolean currentWorkingThreads = true;
+            public boolean tickRate = true;
 
         }
 
+        private void readObject(ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+            inputStream.defaultReadObject();
+
+            if(scheduling == null) {
+                scheduling = Scheduling.FREE_RUNNING;
+            }
+            if(spikeDelivery == null) {
+                spikeDelivery = SpikeDelivery.RING_BUFFER;
+            }
+            if(executorMode == null) {
+                executorMode = ExecutorMode.FIXED_POOL;
+            }
+            if(accumulation == null) {
+                accumulation = Accumulation.ATOMIC;
+            }
+            if(overflowPolicy == null) {
+                overflowPolicy = OverflowPolicy.BLOCK;
+            }
+            if(plasticity == null) {
+                plasticity = Plasticity.GLOBAL;
+            }
+            if(ticking == null) {
+                ticking = Ticking.BLOCK;
+            }
+            if(tickDivision == null) {
+                tickDivision = TickDivision.BALANCED;
+            }
+            if(precision == null) {
+                precision = Precision.FLOAT64;
+            }
+            if(synapseStorage == null) {
+                synapseStorage = SynapseStorage.HEAP;
+            }
+        }
+
+        /**
+         * @return the latest tuning published, or a snapshot of the configuration if none was
+         */
+        Tuning tuning() {
+            Tuning tuning = this.tuning;
+            return tuning != null ? tuning : Tuning.of(this);
+        }
+
+        void publish(Tuning tuning) {
+            this.tuning = tuning;
+        }
+
+    }
+
+    public enum Scheduling {
+        /**
+         * Tick threads run independently and stimulation is delivered asynchronously, as configured by {@link SpikeDelivery}.
+         */
+        FREE_RUNNING,
+        /**
+         * Tick threads advance in lock step, integrating stimulation into double buffered potentials.
+         */
+        SYNCHRONOUS,
+        /**
+         * A single clock visits only the neurons with stimulation due, scheduled on a timing wheel.
+         * Synapses are delayed by up to {@link Configuration#maximumSynapseDelay} ticks.
+         */
+        EVENT_DRIVEN,
+        /**
+         * Every neuron is owned by one of {@link Configuration#partitions} threads, the only thread writing its state.
+         * Stimulation to a neuron of another partition is passed through the mailbox of its owner.
+         */
+        PARTITIONED
+    }
+
+    public enum SpikeDelivery {
+        /**
+         * Every stimulation is submitted as a task of its own to the executor chosen by {@link ExecutorMode}.
+         */
+        EXECUTOR,
+        /**
+         * Stimulation is passed through preallocated ring buffers drained by dedicated workers,
+         * as many as the thread pool size or the available processors, whichever is lower.
+         */
+        RING_BUFFER
+    }
+
+    /**
+     * Executor running the stimulation tasks of {@link SpikeDelivery#EXECUTOR}, unless one is given to {@link NetworkBuilder#executor(Executor)}.
+     * Every mode reports the same awaiting stimulation queue, counted by the network itself.
+     */
+    public enum ExecutorMode {
+        /**
+         * A fixed pool of {@link Configuration#threadPoolSize} threads sharing a single queue.
+         */
+        FIXED_POOL,
+        /**
+         * A {@link ForkJoinPool} of {@link Configuration#threadPoolSize} threads in async mode, with a queue per thread.
+         */
+        FORK_JOIN,
+        /**
+         * A new virtual thread per stimulation. Requires Java 21 and falls back to {@link #FIXED_POOL} on older versions.
+         */
+        VIRTUAL_THREADS,
+        /**
+         * The tick thread transmitting the stimulation delivers it itself.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * What happens to stimulation transmitted while its queue already holds {@link Configuration#stimulationQueueCapacity}
+     * stimulations (16384 if 0). Applies to the queues of {@link Scheduling#FREE_RUNNING} and {@link Scheduling#PARTITIONED}.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The transmitting thread waits until the queue has room.
+         */
+        BLOCK,
+        /**
+         * The oldest queued stimulation is dropped to make room.
+         */
+        DROP_OLDEST,
+        /**
+         * The transmitted stimulation is dropped.
+         */
+        DROP_NEWEST,
+        /**
+         * The transmitted stimulation is added to a pending sum of its target neuron,
+         * folded into the potential the next time the neuron ticks.
+         */
+        COALESCE
+    }
+
+    /**
+     * How {@link NetworkForm#suppress(SynapseType)} and {@link NetworkForm#grow(SynapseType)} choose the synapses they change.
+     */
+    public enum Plasticity {
+        /**
+         * Every synapse of the type is changed alike.
+         */
+        GLOBAL,
+        /**
+         * Only synapses that transmitted recently are changed, each weighted by its eligibility trace:
+         * the {@link Configuration#eligibilityTraceDecay} to the power of the ticks since it transmitted,
+         * summed over its transmissions.
+         */
+        ELIGIBILITY_TRACE
+    }
+
+    /**
+     * How stimulation delivered concurrently is added to the membrane potential in {@link Scheduling#FREE_RUNNING}.
+     * The other schedulings integrate on the thread owning the neuron and need neither.
+     */
+    public enum Accumulation {
+        /**
+         * Every stimulation is added to the potential with compare-and-swap.
+         */
+        ATOMIC,
+        /**
+         * Every delivering thread adds to a partial sum of its own stripe, in the spirit of {@code DoubleAdder},
+         * and the partial sums are folded into the potential once per tick. Neurons receiving from many
+         * threads at once no longer make them retry on the same value.
+         */
+        STRIPED
+    }
+
+    /**
+     * How {@link Scheduling#SYNCHRONOUS} updates the potentials of the neurons every tick.
+     * The other schedulings only visit the neurons with pending activity and tick them one by one.
+     */
+    public enum Ticking {
+        /**
+         * Every marked neuron is ticked on its own: its refractory period, threshold and decay are checked
+         * one after another before the next neuron is looked at.
+         */
+        PER_NEURON,
+        /**
+         * Blocks of consecutive neurons are counted down, checked against their thresholds and decayed
+         * with branch-free arithmetic over primitive arrays, only firing neurons are visited one by one.
+         * On Java 21 and later started with {@code --add-modules jdk.incubator.vector}, the blocks are processed
+         * with the Vector API, otherwise with loops the JIT may vectorize itself.
+         */
+        BLOCK
+    }
+
+    /**
+     * How the neurons are divided among the tick threads of {@link Scheduling#SYNCHRONOUS} and
+     * {@link Scheduling#FREE_RUNNING} scheduling. {@link Scheduling#PARTITIONED} always divides them into equal ranges,
+     * as the mailbox of every neuron stays with the same thread.
+     */
+    public enum TickDivision {
+        /**
+         * Every tick thread ticks an equal range of the neurons.
+         */
+        EQUAL,
+        /**
+         * Every tick thread ticks a range of the neurons causing about the same work, which follows the firing
+         * neurons and their synapses from tick to tick, see {@link NetworkForm#getLoadImbalance()}.
+         * Free-running threads are divided anew every 128 passes of the first one, which waits for the others
+         * like a merge does, and continue from the latest tick of any thread if neurons moved between them.
+         */
+        BALANCED
+    }
+
+    /**
+     * How the weights of the synapses, and with them the transmitted stimulation and the output values, are stored.
+     *
+     * Weights take most of the memory of a large network and every firing neuron scans its own, so smaller weights
+     * fit more synapses into the caches and the memory bandwidth. Weights are still computed in {@code double}
+     * and only rounded when stored, so every change of a weight errs by at most half the resolution of the precision.
+     * The decay of a single tick is mostly far below that resolution, so a weight only decays once its pending decay
+     * amounts to {@value Weights#DEFERRED_RESOLUTIONS} resolutions or its neuron fires, which keeps the error of the decay
+     * below 1% between firings. Membrane potentials are kept in {@code double} in every precision, as there is only
+     * one per neuron.
+     *
+     * Besides its weight, a synapse takes 4 bytes for its target and 4 bytes for the tick it has decayed up to, stored
+     * as an offset from a tick per neuron. A synapse therefore takes 16 bytes in {@link #FLOAT64} and 12 bytes in the
+     * other precisions, a quarter less. Delayed synapses add 1 byte and tracking their use for
+     * {@link Configuration#pruningIdleTicks} adds 4 bytes to every synapse.
+     */
+    public enum Precision {
+        /**
+         * Weights are stored as {@code double}, 8 bytes per synapse and 16 bytes per synapse in total. The reference
+         * for the other precisions.
+         */
+        FLOAT64,
+        /**
+         * Weights are stored as {@code float}, 4 bytes per synapse and 12 bytes per synapse in total. Every change
+         * of a weight errs by at most 2<sup>-24</sup> relative to the weight, about 6 &times; 10<sup>-8</sup>, which
+         * stays below 10<sup>-6</sup> for weights up to the default maximum strength of 25.
+         */
+        FLOAT32,
+        /**
+         * Weights are stored as 16.16 fixed-point numbers, 4 bytes per synapse and 12 bytes per synapse in total.
+         * Every change of a weight errs by at most 2<sup>-17</sup>, about 7.6 &times; 10<sup>-6</sup>, regardless
+         * of the weight. Weights saturate at &plusmn;32768, far beyond the maximum strengths.
+         */
+        FIXED_16_16
+    }
+
+    /**
+     * Where the targets, weights, decay ticks and delays of the synapses are stored.
+     */
+    public enum SynapseStorage {
+        /**
+         * In arrays on the Java heap.
+         */
+        HEAP,
+        /**
+         * In direct buffers outside of the Java heap, so the heap, and with it the work of the garbage collector,
+         * does not grow with the number of synapses. The buffers replaced when appended synapses are merged are only
+         * released by a collection, which the small heap rarely needs, so bound them with {@code -XX:MaxDirectMemorySize}
+         * at a few times the size of the synapses: reaching it collects the small heap and releases them.
+         */
+        OFF_HEAP
     }
 
     public enum SynapseVisibility {
@@ -188,24 +523,68 @@ public class Network implements NetworkForm, Serializable {
         this.size = this.neurons.length;
         this.outputNeurons = new Neuron[outputs];
 
-        this.markedNeurons = new Neuron[0];
         this.configuration = new Configuration();
+
+        this.state = new NeuronState(inputs + neurons + outputs);
+        this.marked = new MarkedNeurons(state.size());
+        this.synapses = new SynapseTable(state.size());
     }
 
-    private void staticSetup() {
-        int threadPoolSize = configuration.threadPoolSize;
-        if(threadPoolSize == 0) {
-            threadPoolSize = THREAD_POOL_SIZE;
-        }
+    private int threadPoolSize() {
+        return configuration.threadPoolSize == 0 ? THREAD_POOL_SIZE : configuration.threadPoolSize;
+    }
 
+    private void staticSetup() {
         System.setProperty("java.util.logging.SimpleFormatter.format", "[%1$tF %1$tT] [%3$-25s] [%4$-7s] %5$s %n");
-        ThreadBuilder.incrementThreadsForStatistic(threadPoolSize);
+    }
 
-        this.threadPoolExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(threadPoolSize);
+    void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    void setHost(NetworkHost host, String name) {
+        if(scheduler != null) {
+            throw new IllegalStateException("Network has already been started.");
+        }
+        if(this.host != null) {
+            throw new IllegalStateException("Network is already hosted as " + this.name + ".");
+        }
+        this.host = host;
+        this.name = name;
+    }
+
+    private Executor createExecutor() {
+        if(executor != null) {
+            return executor;
+        }
+        int threadPoolSize = threadPoolSize();
+        switch (configuration.executorMode) {
+            case CALLER_RUNS:
+                return Runnable::run;
+
+            case FORK_JOIN:
+                threadStatistic.increment(threadPoolSize);
+                return new ForkJoinPool(threadPoolSize, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+
+            case VIRTUAL_THREADS:
+                if(VirtualThreads.isSupported()) {
+                    return VirtualThreads.newExecutor();
+                }
+                LOGGER.warning("Virtual threads require Java 21, falling back to " + ExecutorMode.FIXED_POOL + ".");
+                threadStatistic.increment(threadPoolSize);
+                return Executors.newFixedThreadPool(threadPoolSize);
+
+            case FIXED_POOL:
+            default:
+                threadStatistic.increment(threadPoolSize);
+                return Executors.newFixedThreadPool(threadPoolSize);
+        }
     }
 
     private void writeObject(ObjectOutputStream outputStream) throws IOException {
+        markedNeurons = marked.toArray();
         outputStream.defaultWriteObject();
+        markedNeurons = null;
     }
 
     private void readObject(ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
@@ -220,6 +599,29 @@ public class Network implements NetworkForm, Serializable {
         if(graphElementMap == null) {
             graphElementMap = new ConcurrentHashMap<>();
         }
+        threadStatistic = new ThreadStatistic();
+
+        state = new NeuronState(inputNeurons.length + neurons.length + outputNeurons.length);
+        synapses = new SynapseTable(state.size());
+        attachNeurons(inputNeurons, 0);
+        attachNeurons(neurons, inputNeurons.length);
+        attachNeurons(outputNeurons, inputNeurons.length + neurons.length);
+
+        marked = new MarkedNeurons(state.size());
+        for(Neuron neuron : markedNeurons) {
+            marked.add(neuron);
+        }
+        markedNeurons = null;
+    }
+
+    private void attachNeurons(Neuron[] neurons, int base) {
+        for(int i = 0; i < neurons.length; i++) {
+            attachNeuron(neurons[i], base + i);
+        }
+    }
+
+    private void attachNeuron(Neuron neuron, int slot) {
+        neuron.attach(state, synapses, slot);
     }
 
     void setLoaded() {
@@ -230,28 +632,23 @@ public class Network implements NetworkForm, Serializable {
     void startFromLoaded() {
         LOGGER.info("Starting AEGIS loaded from file...");
         for(Neuron neuron : inputNeurons) {
-            neuron.setExecutorService(threadPoolExecutor);
-
             neuron.load(inputNeurons);
             neuron.load(neurons);
             neuron.load(outputNeurons);
         }
         for(Neuron neuron : neurons) {
-            neuron.setExecutorService(threadPoolExecutor);
-
             neuron.load(inputNeurons);
             neuron.load(neurons);
             neuron.load(outputNeurons);
         }
         for(Neuron neuron : outputNeurons) {
-            neuron.setExecutorService(threadPoolExecutor);
-
             neuron.load(inputNeurons);
             neuron.load(neurons);
             neuron.load(outputNeurons);
         }
 
         Streams.concat(Stream.of(inputNeurons), Stream.of(neurons), Stream.of(outputNeurons)).forEach(Neuron::startFromLoaded);
+        synapses.merge();
         buildUp();
     }
 
@@ -285,27 +682,55 @@ public class Network implements NetworkForm, Serializable {
     }
 
     @Override
-    public synchronized void suppress(SynapseType synapseType) {
-        for(Neuron neuron : markedNeurons) {
-            neuron.suppress(synapseType);
-        }
+    public void suppress(SynapseType synapseType) {
+        plasticity(synapseType, suppression(synapseType));
     }
 
     @Override
     public void grow(SynapseType synapseType) {
-        for(Neuron neuron : markedNeurons) {
-            neuron.grow(synapseType);
+        plasticity(synapseType, growth(synapseType));
+    }
+
+    private void plasticity(SynapseType synapseType, double delta) {
+        if(configuration.plasticity == Plasticity.ELIGIBILITY_TRACE) {
+            if(scheduler == null) {
+                throw new IllegalStateException("Network has not been started, no synapse is eligible for " + Plasticity.ELIGIBILITY_TRACE + " yet.");
+            }
+            scheduler.reward(synapseType, delta);
+        } else {
+            synapses.shift(synapseType, delta);
         }
     }
 
     @Override
     public void suppressOf(Neuron neuron, SynapseType synapseType) {
-        neuron.suppressOf(synapseType, new ArrayList<>());
+        new SubgraphPlasticity(state, synapses).apply(neuron.getSlot(), synapseType, suppression(synapseType));
     }
 
     @Override
     public void growOf(Neuron neuron, SynapseType synapseType) {
-        neuron.growOf(synapseType, new ArrayList<>());
+        new SubgraphPlasticity(state, synapses).apply(neuron.getSlot(), synapseType, growth(synapseType));
+    }
+
+    /**
+     * @return the change of a suppressed synapse of the type, towards 0
+     */
+    private double suppression(SynapseType synapseType) {
+        Tuning tuning = configuration.tuning();
+        return synapseType == SynapseType.EXCITATORY ? -tuning.excitatorySuppressionRatio : tuning.inhibitorySuppressionRatio;
+    }
+
+    /**
+     * @return the change of a grown synapse of the type, away from 0
+     */
+    private double growth(SynapseType synapseType) {
+        Tuning tuning = configuration.tuning();
+        return synapseType == SynapseType.EXCITATORY ? tuning.excitatoryGrowRatio : -tuning.inhibitoryGrowRatio;
+    }
+
+    @Override
+    public Neuron getInputNeuron(int inputNeuronIndex) {
+        return inputNeurons[inputNeuronIndex];
     }
 
     @Override
@@ -329,12 +754,34 @@ public class Network implements NetworkForm, Serializable {
         return configuration;
     }
 
+    @Override
+    public Tuning tuning() {
+        return configuration.tuning();
+    }
+
+    @Override
+    public void tune(Consumer<Tuning.Tuner> changes) {
+        synchronized(configuration) {
+            Tuning tuning = configuration.tuning().tune(changes);
+            tuning.applyTo(configuration);
+            configuration.publish(tuning);
+        }
+    }
+
     @Override
     public void stimulate(int inputNeuronIndex, double stimulation) {
         if(inputNeuronIndex > inputNeurons.length) {
             throw new IllegalArgumentException("Input neurons size is " + inputNeurons.length + "(max index: " + (inputNeurons.length - 1) + "), but Index #" + inputNeuronIndex + " received instead.");
         }
-        inputNeurons[inputNeuronIndex].recept(stimulation);
+        inject(inputNeurons[inputNeuronIndex], stimulation);
+    }
+
+    private void inject(Neuron neuron, double stimulation) {
+        if(scheduler == null) {
+            neuron.recept(stimulation);
+        } else {
+            scheduler.inject(neuron.getSlot(), stimulation);
+        }
     }
 
     @Override
@@ -347,6 +794,11 @@ public class Network implements NetworkForm, Serializable {
         this.ganglionConsumer = consumer;
     }
 
+    @Override
+    public void tickListener(LongConsumer consumer) {
+        this.tickConsumer = consumer;
+    }
+
     private void visualizeOutputGraph() {
         Juikit.createFrame()
                 .title("AEGIS-VIII (OUTPUT-GRAPH)")
@@ -436,7 +888,7 @@ public class Network implements NetworkForm, Serializable {
                                 if(neuron.isRefractory()) {
                                     color = new Color(138, 0, 0);
                                 } else {
-                                    color = new Color(0, (int) Math.max(0, Math.min(255, (neuron.getSum().get() - Neuron.STABLE_POTENTIAL) * 2 + 180)), 0);
+                                    color = new Color(0, (int) Math.max(0, Math.min(255, (neuron.getPotential() - Neuron.STABLE_POTENTIAL) * 2 + 180)), 0);
                                 }
                             } else {
                                 if(neuron.isRefractory()) {
@@ -489,7 +941,7 @@ public class Network implements NetworkForm, Serializable {
                                 if(neuron.isRefractory()) {
                                     color = new Color(138, 0, 0);
                                 } else {
-                                    color = new Color(0, (int) Math.max(0, Math.min(255, (neuron.getSum().get() - Neuron.STABLE_POTENTIAL) * 2 + 180)), 0);
+                                    color = new Color(0, (int) Math.max(0, Math.min(255, (neuron.getPotential() - Neuron.STABLE_POTENTIAL) * 2 + 180)), 0);
                                 }
                             } else {
                                 if(neuron.isRefractory()) {
@@ -536,7 +988,7 @@ public class Network implements NetworkForm, Serializable {
                                 if(neuron.isRefractory()) {
                                     color = new Color(138, 0, 0);
                                 } else {
-                                    color = new Color(0, (int) Math.max(0, Math.min(255, (neuron.getSum().get() - Neuron.STABLE_POTENTIAL) * 2 + 180)), 0);
+                                    color = new Color(0, (int) Math.max(0, Math.min(255, (neuron.getPotential() - Neuron.STABLE_POTENTIAL) * 2 + 180)), 0);
                                 }
                             } else {
                                 if(neuron.isRefractory()) {
@@ -579,7 +1031,7 @@ public class Network implements NetworkForm, Serializable {
 
                     for(Neuron.Coordinate coordinate : neuronCoordinates) {
                         if(Math.abs(coordinate.x - x) < wheel && Math.abs(coordinate.y - y) < wheel) {
-                            coordinate.neuron.recept(100);
+                            inject(coordinate.neuron, 100);
                         }
                     }
                 })
@@ -592,7 +1044,7 @@ public class Network implements NetworkForm, Serializable {
                     int recepted = 0;
                     for(Neuron.Coordinate coordinate : neuronCoordinates) {
                         if(Math.abs(coordinate.x - x) < wheel && Math.abs(coordinate.y - y) < wheel) {
-                            coordinate.neuron.recept(100);
+                            inject(coordinate.neuron, 100);
                             recepted++;
                         }
                     }
@@ -623,17 +1075,17 @@ public class Network implements NetworkForm, Serializable {
 
     private void allocateNeurons() {
         LOGGER.info("Allocating inter neurons...");
-        allocateNeuronsInternal(neurons);
+        allocateNeuronsInternal(neurons, inputNeurons.length);
     }
 
     private void allocateInputNeurons() {
         LOGGER.info("Allocating input neurons...");
-        allocateNeuronsInternal(inputNeurons);
+        allocateNeuronsInternal(inputNeurons, 0);
     }
 
     private void allocateOutputNeurons() {
         LOGGER.info("Allocating output neurons...");
-        allocateNeuronsInternal(outputNeurons);
+        allocateNeuronsInternal(outputNeurons, inputNeurons.length + neurons.length);
 
         if(!loaded) {
             for(Neuron neuron : outputNeurons) {
@@ -648,6 +1100,9 @@ public class Network implements NetworkForm, Serializable {
                         outputValues.get(outputNeuron).set(value);
                     }
 
+                    if(!outputGraph) {
+                        return;
+                    }
                     int index = graphIndex.get();
 
                     List<GraphElement> elements = graphElementMap.get(index);
@@ -665,7 +1120,7 @@ public class Network implements NetworkForm, Serializable {
         }
     }
 
-    private void allocateNeuronsInternal(Neuron[] neurons) {
+    private void allocateNeuronsInternal(Neuron[] neurons, int base) {
         if(loaded) {
             LOGGER.info("Skipping allocating neurons...");
             return;
@@ -677,7 +1132,8 @@ public class Network implements NetworkForm, Serializable {
 
         LOGGER.info("Allocate " + neurons.length + " neurons.");
         for(int i = 0; i < neurons.length; i++) {
-            neurons[i] = new Neuron(i, configuration, threadPoolExecutor);
+            neurons[i] = new Neuron(i, base + i, configuration, random);
+            attachNeuron(neurons[i], base + i);
 
             if(i != 0 && i % checkpoint == 0) {
                 LOGGER.info(i + " iterator to go.");
@@ -686,127 +1142,210 @@ public class Network implements NetworkForm, Serializable {
         LOGGER.info("Successfully allocated " + neurons.length + " neurons.");
     }
 
-    private synchronized void mark(Neuron neuron) {
-        if(neuron.isMarked()) {
+    private void mark(Neuron neuron) {
+        if(!marked.add(neuron)) {
             return;
         }
-        markedNeurons = Arrays.copyOf(markedNeurons, markedNeurons.length + 1);
-        markedNeurons[markedNeurons.length - 1] = neuron;
-
         neuron.setMarked();
+        if(synaptogenesis != null) {
+            unsaturate(neuron.getSlot());
+        }
     }
 
     private void createConnection() {
-        if(markedNeurons.length == 0) {
+        if(marked.size() == 0) {
             LOGGER.info("No marked neurons. Setup and mark input neurons");
             for(Neuron neuron : inputNeurons) {
                 mark(neuron);
             }
         }
 
-        LOGGER.info("Starting thread for connect input neurons to inter neurons.");
-        ThreadBuilder.builder().name("Neuroplasiticity-INPUT-INTER").runnable(() -> {
-            while(true) {
-                for(Neuron neuron : inputNeurons) {
-                    if (neuron.needConnection(configuration.maxSynapsesForInputNeurons)) {
-                        Neuron ganglion = chooseNeuron();
-                        ganglion.setGanglion((OutputConsumer & Serializable) (ganglionNeuron, value) -> {
-                            if(ganglionConsumer != null) {
-                                ganglionConsumer.accept(ganglionNeuron, value);
-                            }
-                        });
-                        createSynapse(neuron, ganglion);
-                    }
-                }
+        OutputConsumer ganglionCallback = (OutputConsumer & Serializable) (ganglionNeuron, value) -> {
+            if(ganglionConsumer != null) {
+                ganglionConsumer.accept(ganglionNeuron, value);
             }
-        }).start();
+        };
+        int inputs = inputNeurons.length;
+        int inputCapacity = Math.max(configuration.maxSynapsesForInputNeurons, configuration.maxSynapsesForInterNeurons);
+        synaptogenesis = new Synaptogenesis(synapses, state.size(),
+                slot -> slot < inputs ? inputCapacity : configuration.maxSynapsesForInterNeurons,
+                (slot, random) -> growSynapse(state.neuron(slot), ganglionCallback, random), random.split());
+        synapses.removalListener(this::unsaturate);
+        marked.forEach(neuron -> unsaturate(neuron.getSlot()));
+        LOGGER.info("Growing up to " + synapsesGrownPerTick() + " synapses per tick from " + synaptogenesis.getUnsaturatedNeurons() + " unsaturated neurons.");
+    }
 
-        LOGGER.info("Starting thread for self-organizing inter neuron map.");
-        ThreadBuilder.builder().name("Self-organizing-INTER-INTER").runnable(() -> {
-            while(true) {
-                Neuron neuron = chooseMarkedNeuron();
-                if(neuron.needConnection(configuration.maxSynapsesForInterNeurons)) {
-                    createSynapse(neuron, chooseNeuron());
-                }
-            }
-        }).start();
+    /**
+     * Input neurons connect to ganglions until they have {@link Configuration#maxSynapsesForInputNeurons} synapses,
+     * afterwards every marked neuron connects to inter or output neurons alike.
+     */
+    private boolean growSynapse(Neuron neuron, OutputConsumer ganglionCallback, SplittableRandom random) {
+        if(neuron.getSlot() < inputNeurons.length && neuron.needConnection(configuration.maxSynapsesForInputNeurons)) {
+            Neuron ganglion = chooseNeuron(random);
+            ganglion.setGanglion(ganglionCallback);
+            return createSynapse(neuron, ganglion, random);
+        }
+        if(random.nextBoolean()) {
+            return createSynapse(neuron, chooseNeuron(random), random);
+        }
+        return createSynapse(neuron, chooseOutputNeuron(random), random);
+    }
 
-        LOGGER.info("Starting thread for self-organizing inter neuron maps to output neurons.");
-        ThreadBuilder.builder().name("Self-organizing-INTER-OUTPUT").runnable(() -> {
-            while(true) {
-                Neuron neuron = chooseMarkedNeuron();
-                if(neuron.needConnection(configuration.maxSynapsesForInterNeurons)) {
-                    createSynapse(neuron, chooseOutputNeuron());
-                }
-            }
-        }).start();
+    private void unsaturate(int slot) {
+        if(!state.neuron(slot).isOutputNeuron()) {
+            synaptogenesis.unsaturate(slot);
+        }
+    }
+
+    private int synapsesGrownPerTick() {
+        int synapsesGrownPerTick = configuration.tuning().synapsesGrownPerTick;
+        return synapsesGrownPerTick == 0 ? SYNAPSES_GROWN_PER_TICK : synapsesGrownPerTick;
+    }
+
+    /**
+     * @return whether a seeded network is ticked by a scheduler stepping every neuron in a fixed order
+     */
+    private boolean isDeterministic() {
+        return configuration.seed != 0 && (scheduling() == Scheduling.SYNCHRONOUS || scheduling() == Scheduling.EVENT_DRIVEN);
+    }
+
+    /**
+     * @return the configured scheduling, or {@link Scheduling#SYNCHRONOUS} in place of those a host cannot run
+     */
+    private Scheduling scheduling() {
+        if(host != null && configuration.scheduling != Scheduling.EVENT_DRIVEN) {
+            return Scheduling.SYNCHRONOUS;
+        }
+        return configuration.scheduling;
+    }
+
+    /**
+     * Called by the scheduler at the end of every tick.
+     */
+    private void ticked(long tick) {
+        synaptogenesis.grow(synapsesGrownPerTick());
+        LongConsumer consumer = tickConsumer;
+        if(consumer != null) {
+            consumer.accept(tick);
+        }
     }
 
     @Override
     public int getAwaitingStimulationQueues() {
-        return threadPoolExecutor.getQueue().size();
+        if(scheduler == null) {
+            return 0;
+        }
+        return scheduler.getAwaitingStimulations();
+    }
+
+    @Override
+    public long getDroppedStimulations() {
+        return scheduler == null ? 0 : scheduler.getDroppedStimulations();
+    }
+
+    @Override
+    public long getCoalescedStimulations() {
+        return scheduler == null ? 0 : scheduler.getCoalescedStimulations();
+    }
+
+    @Override
+    public long getTransmittedStimulations() {
+        return scheduler == null ? 0 : scheduler.getTransmittedStimulations();
+    }
+
+    @Override
+    public long getGrownSynapses() {
+        return synaptogenesis == null ? 0 : synaptogenesis.getGrownSynapses();
+    }
+
+    @Override
+    public long getPrunedSynapses() {
+        return synapses == null ? 0 : synapses.getPrunedSynapses();
     }
 
-    private void createSynapse(Neuron origin, Neuron other) {
+    @Override
+    public long getReclaimedSynapseBytes() {
+        return synapses == null ? 0 : synapses.getReclaimedBytes();
+    }
+
+    @Override
+    public int getUnsaturatedNeurons() {
+        return synaptogenesis == null ? 0 : synaptogenesis.getUnsaturatedNeurons();
+    }
+
+    @Override
+    public double getLoadImbalance() {
+        if(scheduler == null) {
+            return 1;
+        }
+        return TickScheduler.imbalance(new long[scheduler.threads], scheduler.getBusyNanos());
+    }
+
+    private boolean createSynapse(Neuron origin, Neuron other, SplittableRandom random) {
         if(origin.isOutputNeuron()) {
-            return;
+            return false;
         }
         Synapse synapse = new Synapse();
-        if(Math.random() > configuration.inhibitorySynapseCreationChance) {
+        if(random.nextDouble() > configuration.tuning().inhibitorySynapseCreationChance) {
             synapse.synapseType = SynapseType.EXCITATORY;
             synapse.transmitter = 5d;
         } else {
             synapse.synapseType = SynapseType.INHIBITORY;
             synapse.transmitter = -5d;
         }
+        if(configuration.maximumSynapseDelay > 0) {
+            synapse.delay = random.nextInt(Math.min(configuration.maximumSynapseDelay, SynapseTable.MAXIMUM_DELAY) + 1);
+        }
 
-        origin.createConnection(other, synapse);
+        if(!origin.createConnection(other, synapse)) {
+            return false;
+        }
         mark(other);
+        return true;
     }
 
-    private Neuron chooseOutputNeuron() {
-        return outputNeurons[NEURON_CHOOSER.nextInt(outputNeurons.length)];
+    private Neuron chooseOutputNeuron(SplittableRandom random) {
+        return outputNeurons[random.nextInt(outputNeurons.length)];
     }
 
-    private Neuron chooseNeuron() {
-        return neurons[NEURON_CHOOSER.nextInt(size)];
+    private Neuron chooseNeuron(SplittableRandom random) {
+        return neurons[random.nextInt(size)];
     }
 
-    private synchronized Neuron chooseMarkedNeuron() {
-        return markedNeurons[NEURON_CHOOSER.nextInt(markedNeurons.length)];
-    }
+    private TickScheduler createScheduler() {
+        switch (scheduling()) {
+            case SYNCHRONOUS:
+                return new SynchronousScheduler(state, synapses, configuration, threadSize);
 
-    private void startTick() {
-        for(int i = 0; i < threadSize; i++) {
-            int finalI = i;
-            ThreadBuilder.builder().name("Network Ticking - #" + finalI).runnable(() -> {
-                while(true) {
-                    if(configuration.delayOnNetworkTicking > 0) {
-                        try {
-                            Thread.sleep(configuration.delayOnNetworkTicking);
-                        } catch (InterruptedException e) {
-                            e.printStackTrace();
-                        }
-                    }
-                    // Variable markedNeurons are mutable.
-                    int len = markedNeurons.length;
-                    int piece = len / threadSize;
-
-                    int start = finalI * piece;
-                    int end;
-                    if(finalI == threadSize - 1) {
-                        end = len;
-                    } else {
-                        end = finalI * piece + piece;
-                    }
+            case EVENT_DRIVEN:
+                return new EventDrivenScheduler(state, synapses, configuration);
 
-                    for(int j = start; j < end; j++) {
-                        Neuron neuron = markedNeurons[j];
-                        neuron.tick();
-                    }
+            case PARTITIONED:
+                int partitions = configuration.partitions == 0 ? Runtime.getRuntime().availableProcessors() : configuration.partitions;
+                return new PartitionedScheduler(state, synapses, configuration, partitions);
+
+            case FREE_RUNNING:
+            default:
+                if(configuration.accumulation == Accumulation.STRIPED) {
+                    state.stripe(Runtime.getRuntime().availableProcessors());
                 }
-            }).start();
+                int deliveryThreads = Math.min(threadPoolSize(), Runtime.getRuntime().availableProcessors());
+                Executor executor = configuration.spikeDelivery == SpikeDelivery.EXECUTOR ? createExecutor() : null;
+                return new FreeRunningScheduler(state, synapses, configuration, threadSize, executor, deliveryThreads);
+        }
+    }
+
+    private void startTick() {
+        if(host != null) {
+            if(configuration.scheduling != scheduling()) {
+                LOGGER.info(configuration.scheduling + " scheduling cannot be hosted, ticking " + name + " in " + scheduling() + " scheduling.");
+            }
+            // Only hostable schedulings are created for a hosted network, see scheduling().
+            host.start(name, (Hostable) scheduler, configuration);
+            return;
         }
+        LOGGER.info("Starting " + scheduler.threads + " tick threads in " + configuration.scheduling + " scheduling.");
+        scheduler.start();
     }
 
     private void buildUp() {
@@ -814,7 +1353,19 @@ public class Network implements NetworkForm, Serializable {
             loadedResourceInfo();
         }
 
-        threadSize = configuration.threadSizeForTicking == 0 ? TICK_DIVISION : configuration.threadSizeForTicking;
+        threadSize = host != null ? 1 : configuration.threadSizeForTicking == 0 ? TICK_DIVISION : configuration.threadSizeForTicking;
+        random = configuration.seed != 0 ? new SplittableRandom(configuration.seed) : new SplittableRandom();
+        configuration.publish(Tuning.of(configuration));
+        synapses.store(configuration.precision, configuration.synapseStorage);
+        scheduler = createScheduler();
+        scheduler.tickListener(this::ticked);
+        scheduler.threadStatistic(threadStatistic);
+        if(isDeterministic()) {
+            synapses.mergeByTicks();
+        }
+        if(configuration.pruningIdleTicks > 0) {
+            synapses.trackUse();
+        }
 
         allocateInputNeurons();
         allocateNeurons();
@@ -826,31 +1377,59 @@ public class Network implements NetworkForm, Serializable {
         createConnection();
         startTick();
 
-        ThreadBuilder.builder().name("Network Statistic Logger").runnable(() -> {
-            boolean memoryInfo = false;
+        StatisticLogger statisticLogger = new StatisticLogger();
+        if(host != null) {
+            host.scheduleStatistic(statisticLogger);
+            return;
+        }
+        ThreadBuilder.builder().name("Network Statistic Logger").statistic(threadStatistic).runnable(() -> {
             while(true) {
                 try {
                     Thread.sleep(5000L);
                 } catch (InterruptedException e) {
                     e.printStackTrace();
                 }
+                statisticLogger.run();
+            }
+        }).start();
+    }
 
-                memoryInfo = !memoryInfo;
-
-                Configuration.Loggers loggers = configuration.loggers;
-                if(loggers.markedNeurons || loggers.awaitingStimulationQueue || loggers.memory) {
-                    LOGGER.info("");
-                    markedNeuronsInfo();
-                    inQueueInPoolInfo();
-                    currentWorkingThreadInifo();
-
-                    if(memoryInfo) {
-                        memoryInfo();
-                    }
-                    LOGGER.info("");
+    /**
+     * Logs the statistics of the network since it last ran, every other time along with the memory.
+     */
+    private class StatisticLogger implements Runnable {
+
+        private boolean memoryInfo = false;
+        private long ticks = scheduler.getTicks();
+        private long transmitted = scheduler.getTransmittedStimulations();
+        private long grown = getGrownSynapses();
+        private long[] busy = scheduler.getBusyNanos();
+        private long time = System.nanoTime();
+
+        @Override
+        public void run() {
+            memoryInfo = !memoryInfo;
+
+            Configuration.Loggers loggers = configuration.loggers;
+            if(loggers.markedNeurons || loggers.awaitingStimulationQueue || loggers.memory || loggers.tickRate) {
+                LOGGER.info(name == null ? "" : "======== " + name + " ========");
+                markedNeuronsInfo();
+                inQueueInPoolInfo();
+                currentWorkingThreadInifo();
+                tickRateInfo(scheduler.getTicks() - ticks, scheduler.getTransmittedStimulations() - transmitted, getGrownSynapses() - grown,
+                        TickScheduler.imbalance(busy, scheduler.getBusyNanos()), System.nanoTime() - time);
+
+                if(memoryInfo) {
+                    memoryInfo();
                 }
+                LOGGER.info("");
             }
-        }).start();
+            ticks = scheduler.getTicks();
+            transmitted = scheduler.getTransmittedStimulations();
+            grown = getGrownSynapses();
+            busy = scheduler.getBusyNanos();
+            time = System.nanoTime();
+        }
     }
 
     private void memoryInfo() {
@@ -869,6 +1448,12 @@ public class Network implements NetworkForm, Serializable {
         LOGGER.info("Max   Memory: " + format.format(maxMemory) + "MB");
         LOGGER.info("Free  Memory: " + format.format(freeMemory) + "MB");
         LOGGER.info("Total Memory: " + format.format(inUseMemory) + "MB");
+        if(configuration.synapseStorage == SynapseStorage.OFF_HEAP && synapses != null) {
+            LOGGER.info("Off-heap Synapses: " + format.format(synapses.getOffHeapBytes() / 1024d / 1024d) + "MB");
+        }
+        if(synapses != null) {
+            LOGGER.info("Pruned Synapses: " + getPrunedSynapses() + ", Reclaimed: " + format.format(getReclaimedSynapseBytes() / 1024d / 1024d) + "MB");
+        }
         LOGGER.info("=============================");
     }
 
@@ -876,30 +1461,43 @@ public class Network implements NetworkForm, Serializable {
         if(!configuration.loggers.markedNeurons) {
             return;
         }
-        LOGGER.info("Marked neurons: " + markedNeurons.length);
+        LOGGER.info("Marked neurons: " + marked.size() + ", Unsaturated: " + getUnsaturatedNeurons());
     }
 
     private void inQueueInPoolInfo() {
         if(!configuration.loggers.awaitingStimulationQueue) {
             return;
         }
-        LOGGER.info("Awaiting stimulation queue: " + threadPoolExecutor.getQueue().size());
+        LOGGER.info("Awaiting stimulation queue: " + getAwaitingStimulationQueues() + ", Dropped: " + getDroppedStimulations() + ", Coalesced: " + getCoalescedStimulations());
     }
 
     private void currentWorkingThreadInifo() {
         if(!configuration.loggers.currentWorkingThreads) {
             return;
         }
-        LOGGER.info("Current working threads: " + ThreadBuilder.getThreads() + ", Non-countable but active threads: " + ThreadBuilder.getNonCountableThreads());
+        if(host != null) {
+            LOGGER.info("Hosted on " + host.getWorkers() + " workers shared by " + host.getHostedNetworks() + " networks");
+            return;
+        }
+        LOGGER.info("Current working threads: " + threadStatistic.getThreads() + ", Non-countable but active threads: " + threadStatistic.getNonCountableThreads());
+    }
+
+    private void tickRateInfo(long ticks, long transmitted, long grown, double imbalance, long nanos) {
+        if(!configuration.loggers.tickRate) {
+            return;
+        }
+        DecimalFormat format = new DecimalFormat("#.##");
+        LOGGER.info("Tick rate: " + format.format(ticks * 1_000_000_000d / nanos) + " ticks/s, " + format.format(transmitted * 1_000_000_000d / nanos) + " stimulations/s, "
+                + format.format(grown * 1_000_000_000d / nanos) + " synapses grown/s, load imbalance " + format.format(imbalance));
     }
 
     private void loadedResourceInfo() {
         LOGGER.info("================= LOADED AEGIS RESOURCES =================");
         LOGGER.info("Inputs: " + inputNeurons.length + ", Inters: " + neurons.length + ", Outputs: " + outputNeurons.length);
-        LOGGER.info("Marked: " + markedNeurons.length);
+        LOGGER.info("Marked: " + marked.size());
         LOGGER.info("Neuron Coordinates: " + neuronCoordinates.size());
 
-        LOGGER.info("Syanpses: " + Streams.concat(Arrays.stream(inputNeurons), Arrays.stream(neurons), Arrays.stream(outputNeurons)).mapToInt(Neuron::getSynapses).sum());
+        LOGGER.info("Syanpses: " + synapses.size());
         LOGGER.info("==========================================================");
     }
 }
@@ -1,5 +1,6 @@
 package av.is.aegis;
 
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 public class NetworkBuilder {
@@ -14,6 +15,8 @@ public class NetworkBuilder {
     private boolean visualize;
     private boolean outputGraph;
     private Network.Configuration configuration = new Network.Configuration();
+    private Executor executor;
+    private NetworkHost host;
 
     private NetworkBuilder() {
     }
@@ -43,6 +46,58 @@ public class NetworkBuilder {
         return this;
     }
 
+    /**
+     * Ticks the network in {@link Network.Scheduling#PARTITIONED} scheduling.
+     *
+     * @param partitions number of partition threads, or 0 for as many as the available processors
+     */
+    public NetworkBuilder partitions(int partitions) {
+        if(partitions < 0) {
+            throw new IllegalArgumentException("Partitions cannot be negative.");
+        }
+        configuration.scheduling = Network.Scheduling.PARTITIONED;
+        configuration.partitions = partitions;
+        return this;
+    }
+
+    /**
+     * Delivers stimulation through {@link Network.SpikeDelivery#EXECUTOR} on an executor of the given mode.
+     */
+    public NetworkBuilder executor(Network.ExecutorMode executorMode) {
+        configuration.spikeDelivery = Network.SpikeDelivery.EXECUTOR;
+        configuration.executorMode = executorMode;
+        return this;
+    }
+
+    /**
+     * Delivers stimulation through {@link Network.SpikeDelivery#EXECUTOR} on the given executor.
+     * The executor is not serialized with the network.
+     */
+    public NetworkBuilder executor(Executor executor) {
+        configuration.spikeDelivery = Network.SpikeDelivery.EXECUTOR;
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Ticks the network on the workers of the host instead of threads of its own, see {@link NetworkHost}.
+     */
+    public NetworkBuilder host(NetworkHost host) {
+        this.host = host;
+        return this;
+    }
+
+    /**
+     * Seeds the random choices of the network, see {@link Network.Configuration#seed}.
+     */
+    public NetworkBuilder seed(long seed) {
+        if(seed == 0) {
+            throw new IllegalArgumentException("Seed cannot be zero.");
+        }
+        configuration.seed = seed;
+        return this;
+    }
+
     public NetworkBuilder configure(Consumer<Network.Configuration> consumer) {
         consumer.accept(configuration);
         return this;
@@ -66,6 +121,12 @@ public class NetworkBuilder {
             network.setOutputGraph(true);
         }
         network.migrateConfiguration(configuration);
+        if(executor != null) {
+            network.setExecutor(executor);
+        }
+        if(host != null) {
+            host.host(network);
+        }
         return network;
     }
 
@@ -2,33 +2,117 @@ package av.is.aegis;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 public interface NetworkForm {
 
     Network.Configuration config();
 
+    /**
+     * @return the parameters the network currently runs with
+     */
+    Tuning tuning();
+
+    /**
+     * Changes the parameters the network runs with, while it runs. The changes are checked and published as a whole,
+     * see {@link Tuning} for when the tick threads take them up, and are kept in the configuration.
+     *
+     * @throws IllegalArgumentException if a changed parameter is out of range, in which case nothing changes
+     */
+    void tune(Consumer<Tuning.Tuner> changes);
+
     void stimulate(int inputNeuronIndex, double stimulation);
 
     void outputListener(OutputConsumer consumer);
 
     void ganglionListener(OutputConsumer consumer);
 
+    /**
+     * Listens to the end of every tick. Stimulating from the listener reaches the network at a well defined tick,
+     * which a seeded network needs to transmit the same stimulations on every run.
+     */
+    void tickListener(LongConsumer consumer);
+
     void setVisualization(boolean visualization);
 
     void setOutputGraph(boolean outputGraph);
 
     void start();
 
+    /**
+     * Weakens the synapses of the type chosen by the {@link Network.Plasticity}, in constant time.
+     * The synapses take the change when their neurons fire or tick next.
+     *
+     * @throws IllegalStateException if the plasticity is {@link Network.Plasticity#ELIGIBILITY_TRACE} and the network has not been started
+     */
     void suppress(SynapseType synapseType);
 
+    /**
+     * Strengthens the synapses of the type chosen by the {@link Network.Plasticity}, in constant time.
+     * The synapses take the change when their neurons fire or tick next.
+     *
+     * @throws IllegalStateException if the plasticity is {@link Network.Plasticity#ELIGIBILITY_TRACE} and the network has not been started
+     */
     void grow(SynapseType synapseType);
 
+    /**
+     * Weakens every synapse of the type reachable from the neuron through synapses of the type.
+     * The synapses take the change when their neurons fire or tick next.
+     */
     void suppressOf(Neuron neuron, SynapseType synapseType);
 
+    /**
+     * Strengthens every synapse of the type reachable from the neuron through synapses of the type.
+     * The synapses take the change when their neurons fire or tick next.
+     */
     void growOf(Neuron neuron, SynapseType synapseType);
 
+    Neuron getInputNeuron(int inputNeuronIndex);
+
     int getAwaitingStimulationQueues();
 
+    /**
+     * @return the number of stimulations transmitted through synapses since the network started
+     */
+    long getTransmittedStimulations();
+
+    /**
+     * @return the number of stimulations dropped by the {@link Network.OverflowPolicy} since the network started
+     */
+    long getDroppedStimulations();
+
+    /**
+     * @return the number of stimulations coalesced by the {@link Network.OverflowPolicy} since the network started
+     */
+    long getCoalescedStimulations();
+
+    /**
+     * @return the number of synapses grown since the network started
+     */
+    long getGrownSynapses();
+
+    /**
+     * @return the number of synapses pruned since the network started, see {@link Network.Configuration#pruningMagnitude}
+     */
+    long getPrunedSynapses();
+
+    /**
+     * @return the number of bytes of removed synapses reclaimed from the synapse storage since the network started
+     */
+    long getReclaimedSynapseBytes();
+
+    /**
+     * @return the number of marked neurons that may still grow synapses
+     */
+    int getUnsaturatedNeurons();
+
+    /**
+     * @return the time the busiest tick thread spent ticking since the network started, over the mean time
+     *         of all tick threads; 1 if the work is spread evenly, up to the number of tick threads if one does all
+     */
+    double getLoadImbalance();
+
     void write(File file) throws IOException;
 
 }
@@ -0,0 +1,186 @@
+package av.is.aegis;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs any number of networks on one bounded set of worker threads, instead of the tick threads, thread pool
+ * and statistic logger every network starts on its own.
+ *
+ * A hosted network is ticked in slices: a worker runs ticks of the network until {@link Builder#ticksPerSlice(int)}
+ * ticks or {@link Builder#sliceNanos(long)} have passed, then queues the network behind every other network waiting
+ * for a worker. Every network waiting gets a slice before any network gets another, so a large network
+ * cannot starve the small ones. A network without anything to do hands its worker back and is looked at again
+ * after a short pause.
+ *
+ * A hosted network ticks on a single worker at a time, in {@link Network.Scheduling#EVENT_DRIVEN} scheduling if
+ * configured so and in {@link Network.Scheduling#SYNCHRONOUS} scheduling otherwise. Its neuron IDs and statistics
+ * are its own, as for every network.
+ */
+public class NetworkHost {
+
+    private static final Logger LOGGER = Logger.getLogger("AEGIS-VIII-HOST");
+
+    private static final int TICKS_PER_SLICE = 64;
+    private static final long SLICE_NANOS = 1_000_000L;
+    private static final long STATISTIC_PERIOD_MILLIS = 5000L;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final ScheduledThreadPoolExecutor workers;
+    private final int workerSize;
+    private final int ticksPerSlice;
+    private final long sliceNanos;
+
+    private final AtomicInteger networks = new AtomicInteger();
+
+    private NetworkHost(int workerSize, int ticksPerSlice, long sliceNanos) {
+        this.workerSize = workerSize;
+        this.ticksPerSlice = ticksPerSlice;
+        this.sliceNanos = sliceNanos;
+
+        AtomicInteger index = new AtomicInteger();
+        this.workers = new ScheduledThreadPoolExecutor(workerSize, runnable -> ThreadBuilder.builder()
+                .name("Network Host - #" + index.getAndIncrement())
+                .runnable(runnable)
+                .build());
+        this.workers.prestartAllCoreThreads();
+    }
+
+    /**
+     * Hosts the network, which has to be started afterwards by {@link NetworkForm#start()},
+     * or {@link NetworkLoader#start()} if it is loaded.
+     */
+    public void host(NetworkForm form) {
+        ((Network) form).setHost(this, "Network #" + networks.incrementAndGet());
+    }
+
+    /**
+     * @return the number of worker threads shared by the hosted networks
+     */
+    public int getWorkers() {
+        return workerSize;
+    }
+
+    /**
+     * @return the number of networks hosted so far
+     */
+    public int getHostedNetworks() {
+        return networks.get();
+    }
+
+    /**
+     * Stops every hosted network at the end of its current slice.
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    void start(String name, Hostable scheduler, Network.Configuration configuration) {
+        LOGGER.info("Hosting " + name + " on " + workerSize + " workers in slices of " + ticksPerSlice + " ticks.");
+        workers.execute(new Slice(name, scheduler, configuration));
+    }
+
+    void scheduleStatistic(Runnable logger) {
+        workers.scheduleAtFixedRate(logger, STATISTIC_PERIOD_MILLIS, STATISTIC_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs a slice of a network and queues the next one.
+     */
+    private class Slice implements Runnable {
+
+        private final String name;
+        private final Hostable scheduler;
+        private final Network.Configuration configuration;
+
+        Slice(String name, Hostable scheduler, Network.Configuration configuration) {
+            this.name = name;
+            this.scheduler = scheduler;
+            this.configuration = configuration;
+        }
+
+        @Override
+        public void run() {
+            long delay = configuration.tuning().delayOnNetworkTicking;
+            int ticks = delay > 0 ? 1 : ticksPerSlice;
+            long deadline = System.nanoTime() + sliceNanos;
+            int ran = 0;
+            try {
+                while(ran < ticks && scheduler.run(1) == 1) {
+                    ran++;
+                    if(System.nanoTime() - deadline >= 0) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                LOGGER.severe("Stopped hosting " + name + " after it failed to tick.");
+                e.printStackTrace();
+                return;
+            }
+
+            if(workers.isShutdown()) {
+                return;
+            }
+            if(ran == 0) {
+                workers.schedule(this, TickScheduler.IDLE_PARK_NANOS, TimeUnit.NANOSECONDS);
+            } else if(delay > 0) {
+                workers.schedule(this, delay, TimeUnit.MILLISECONDS);
+            } else {
+                workers.execute(this);
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private int ticksPerSlice = TICKS_PER_SLICE;
+        private long sliceNanos = SLICE_NANOS;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the number of worker threads, the available processors by default.
+         */
+        public Builder workers(int workers) {
+            if(workers <= 0) {
+                throw new IllegalArgumentException("Workers must be positive.");
+            }
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Sets the most ticks a network runs before handing its worker to the next network.
+         */
+        public Builder ticksPerSlice(int ticksPerSlice) {
+            if(ticksPerSlice <= 0) {
+                throw new IllegalArgumentException("Ticks per slice must be positive.");
+            }
+            this.ticksPerSlice = ticksPerSlice;
+            return this;
+        }
+
+        /**
+         * Sets the most time a network runs before handing its worker to the next network. A tick is never cut short,
+         * so a slice lasts at least one tick.
+         */
+        public Builder sliceNanos(long sliceNanos) {
+            if(sliceNanos <= 0) {
+                throw new IllegalArgumentException("Slice must be positive.");
+            }
+            this.sliceNanos = sliceNanos;
+            return this;
+        }
+
+        public NetworkHost build() {
+            return new NetworkHost(workers, ticksPerSlice, sliceNanos);
+        }
+    }
+}
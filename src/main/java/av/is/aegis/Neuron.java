@@ -1,16 +1,11 @@
 package av.is.aegis;
 
-import com.google.common.util.concurrent.AtomicDouble;
-
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 public class Neuron implements Serializable {
@@ -18,24 +13,18 @@ public class Neuron implements Serializable {
     private static final Logger LOGGER = Logger.getLogger("AEGIS-VIII-NEURON");
 
     private static final Set<Neuron> EMPTY_SET = new HashSet<>();
-    private static final AtomicInteger ATOMIC_ID_GENERATOR = new AtomicInteger();
-    private static final Random RANDOM = new Random();
 
     static final double STABLE_POTENTIAL = -77d;
     private static final long serialVersionUID = -7208138279404699767L;
 
-    private transient ExecutorService executorService;
-
-    private transient Map<Neuron, Synapse> connections = new ConcurrentHashMap<>();
     private transient Map<Integer, Synapse> mappedConnections = new ConcurrentHashMap<>();
     private final int threshold;
 
     private boolean marked = false;
 
-    private final AtomicDouble sum = new AtomicDouble(STABLE_POTENTIAL);
-    private final AtomicInteger refractoryDuration = new AtomicInteger();
-    private final AtomicBoolean refractory = new AtomicBoolean();
-    private final AtomicBoolean absoluteRefractory = new AtomicBoolean();
+    private transient NeuronState state;
+    private transient SynapseTable synapses;
+    private transient int slot;
 
     private Coordinate coordinate;
     private Output output;
@@ -50,9 +39,15 @@ public class Neuron implements Serializable {
         outputStream.defaultWriteObject();
 
         Map<Integer, Synapse> mapped = new ConcurrentHashMap<>();
-        for(Map.Entry<Neuron, Synapse> entry : connections.entrySet()) {
-            mapped.put(entry.getKey().id, entry.getValue());
-        }
+        long now = synapses.now(slot);
+        Tuning tuning = configuration.tuning();
+        synapses.forEach(slot, (target, synapseType, weight, delay, decayedAt) -> {
+            Synapse synapse = new Synapse();
+            synapse.transmitter = decayed(tuning, synapseType == SynapseType.EXCITATORY, weight, now - decayedAt);
+            synapse.synapseType = synapseType;
+            synapse.delay = delay;
+            mapped.put(state.neuron(target).id, synapse);
+        });
         outputStream.writeObject(mapped);
     }
 
@@ -62,19 +57,12 @@ public class Neuron implements Serializable {
         mappedConnections = (ConcurrentHashMap<Integer, Synapse>) inputStream.readObject();
     }
 
-    public void setExecutorService(ExecutorService executorService) {
-        this.executorService = executorService;
-    }
-
     public void load(Neuron[] neurons) {
-        if(connections == null) {
-            connections = new ConcurrentHashMap<>();
-        }
         for(int i = 0; i < neurons.length; i++) {
             Neuron neuron = neurons[i];
             Synapse synapse = mappedConnections.get(neuron.id);
             if(synapse != null) {
-                connections.put(neuron, synapse);
+                createConnection(neuron, synapse);
             }
         }
     }
@@ -84,22 +72,35 @@ public class Neuron implements Serializable {
     }
 
     public int getSynapses() {
-        return connections.size();
+        return synapses.count(slot);
     }
 
-    Neuron(int index, Network.Configuration configuration, ExecutorService executorService) {
+    /**
+     * @param id unique within the network of the neuron only
+     */
+    Neuron(int index, int id, Network.Configuration configuration, SplittableRandom random) {
         this.index = index;
         this.configuration = configuration;
-        this.id = ATOMIC_ID_GENERATOR.getAndIncrement();
+        this.id = id;
 
-        this.executorService = executorService;
-        this.threshold = RANDOM.nextInt(10) - 50;
+        this.threshold = random.nextInt(10) - 50;
     }
 
     public int getIndex() {
         return index;
     }
 
+    void attach(NeuronState state, SynapseTable synapses, int slot) {
+        this.state = state;
+        this.synapses = synapses;
+        this.slot = slot;
+        state.attach(slot, this, threshold, marked, output != null || ganglion != null);
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
     class Coordinate implements Serializable {
         private static final long serialVersionUID = 4133200462653403169L;
 
@@ -159,6 +160,7 @@ public class Neuron implements Serializable {
             output.callback = callback;
             this.output = output;
         }
+        updateRelay();
     }
 
     boolean isOutputNeuron() {
@@ -173,6 +175,11 @@ public class Neuron implements Serializable {
             ganglion.callback = callback;
             this.ganglion = ganglion;
         }
+        updateRelay();
+    }
+
+    private void updateRelay() {
+        state.setRelay(slot, output != null || ganglion != null);
     }
 
     boolean isGanglion() {
@@ -180,15 +187,16 @@ public class Neuron implements Serializable {
     }
 
     Set<Neuron> connectedTo(Network.SynapseVisibility visibility) {
+        Tuning tuning = configuration.tuning();
         switch (visibility) {
             case ALL:
-                return connections.keySet();
+                return filterSynapses(tuning, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
 
             case STRONG_ONLY:
-                return filterSynapses(configuration.excitatoryMaximumStrength / 4, configuration.inhibitoryMaximumStrength / 4);
+                return filterSynapses(tuning, tuning.excitatoryMaximumStrength / 4, tuning.inhibitoryMaximumStrength / 4);
 
             case LIFETIME_ONLY:
-                return filterSynapses(configuration.excitatoryMaximumStrength / 2, configuration.inhibitoryMaximumStrength / 2);
+                return filterSynapses(tuning, tuning.excitatoryMaximumStrength / 2, tuning.inhibitoryMaximumStrength / 2);
 
             case NONE:
             default:
@@ -196,29 +204,34 @@ public class Neuron implements Serializable {
         }
     }
 
-    private Set<Neuron> filterSynapses(double exicitatoryThreshold, double inhibitoryThreshold) {
+    private Set<Neuron> filterSynapses(Tuning tuning, double exicitatoryThreshold, double inhibitoryThreshold) {
         Set<Neuron> neurons = new HashSet<>();
-        for(Map.Entry<Neuron, Synapse> entry : connections.entrySet()) {
-            Synapse synapse = entry.getValue();
-            switch (synapse.synapseType) {
-                case EXCITATORY:
-                    if(entry.getValue().transmitter > exicitatoryThreshold) {
-                        neurons.add(entry.getKey());
-                    }
-                    break;
-
-                case INHIBITORY:
-                    if(entry.getValue().transmitter < inhibitoryThreshold) {
-                        neurons.add(entry.getKey());
-                    }
-                    break;
+        SynapseTable.Rows rows = synapses.rows();
+        long now = synapses.now(slot);
+        double excitatoryShift = synapses.unfolded(slot, true);
+        double inhibitoryShift = synapses.unfolded(slot, false);
+        for(int i = rows.offsets[slot], end = rows.offsets[slot + 1]; i < end; i++) {
+            int entry = rows.targets.get(i);
+            if(entry == SynapseTable.REMOVED) {
+                continue;
+            }
+            double shift = entry >= 0 ? excitatoryShift : inhibitoryShift;
+            double weight = decayed(tuning, entry >= 0, rows.weights.get(i) + shift, now - rows.decayedAt(slot, i));
+            if(entry >= 0) {
+                if(weight > exicitatoryThreshold) {
+                    neurons.add(state.neuron(entry));
+                }
+            } else {
+                if(weight < inhibitoryThreshold) {
+                    neurons.add(state.neuron(~entry));
+                }
             }
         }
         return neurons;
     }
 
     boolean isRefractory() {
-        return refractory.get();
+        return state.isRefractory(slot);
     }
 
     boolean isMarked() {
@@ -227,219 +240,183 @@ public class Neuron implements Serializable {
 
     void setMarked() {
         this.marked = true;
+        state.setMarked(slot);
     }
 
-    void createConnection(Neuron other, Synapse synapse) {
-        connections.putIfAbsent(other, synapse);
+    boolean createConnection(Neuron other, Synapse synapse) {
+        return synapses.add(slot, other.slot, synapse.synapseType, synapse.transmitter, synapse.delay);
     }
 
     boolean needConnection(int max) {
-        return connections.size() < max;
+        return synapses.count(slot) < max;
     }
 
-    private class Stimulator implements Runnable {
-
-        private final Neuron neuron;
-        private final double stimulation;
-
-        Stimulator(Neuron neuron, double stimulation) {
-            this.neuron = neuron;
-            this.stimulation = stimulation;
-        }
-
-        @Override
-        public void run() {
-            neuron.recept(stimulation);
-        }
-    }
-
-    private boolean checkThreshold() {
-        return sum.get() >= threshold;
-    }
-
-    AtomicDouble getSum() {
-        return sum;
+    double getPotential() {
+        return state.getPotential(slot);
     }
 
     /**
      * axon(here) -> connections(dendrite, other)
+     *
+     * @param trace records every transmission at the given tick, if not null
+     * @param tuning the parameters of the current tick
+     * @return the number of transmitted stimulations
      */
-    private void stimulate() {
-        refractory.set(true);
-        refractoryDuration.set(2);
-        for(Iterator<Map.Entry<Neuron, Synapse>> iterator = connections.entrySet().iterator(); iterator.hasNext(); ) {
-            Map.Entry<Neuron, Synapse> entry = iterator.next();
-            Synapse synapse = entry.getValue();
-
-            double transmitter = synapse.transmitter;
-            switch (synapse.synapseType) {
-                case EXCITATORY:
-                    if(transmitter <= 0) {
-                        // Destroyable
-                        iterator.remove();
-                    } else {
-                        // EPSP
-                        executorService.execute(new Stimulator(entry.getKey(), transmitter * configuration.epspMultiply));
-                        if(configuration.synapseReinforcing) {
-                            if(configuration.excitatoryMaximumStrength != 0) {
-                                synapse.transmitter += (configuration.excitatoryMaximumStrength - synapse.transmitter) * 0.0005d;
-                            } else {
-                                synapse.transmitter += configuration.excitatoryReinforcementRatio;
-                            }
-                        }
-
-                        if(configuration.delayOnQueueStimulation > 0) {
-                            try {
-                                Thread.sleep(configuration.delayOnQueueStimulation);
-                            } catch (InterruptedException e) {
-                                e.printStackTrace();
-                            }
-                        }
+    int stimulate(SpikeSink sink, EligibilityTrace trace, long tick, Tuning tuning) {
+        double epspMultiply = tuning.epspMultiply;
+        double ipspMultiply = tuning.ipspMultiply;
+        boolean reinforcing = tuning.synapseReinforcing;
+        double excitatoryMaximumStrength = tuning.excitatoryMaximumStrength;
+        double inhibitoryMaximumStrength = tuning.inhibitoryMaximumStrength;
+
+        int transmitted = 0;
+        state.beginFiring(slot);
+        synapses.fold(slot);
+        SynapseTable.Rows rows = synapses.rows();
+        for(int i = rows.offsets[slot], end = rows.offsets[slot + 1]; i < end; i++) {
+            int entry = rows.targets.get(i);
+            if(entry == SynapseTable.REMOVED) {
+                continue;
+            }
+            if(rows.usedAt != null) {
+                rows.usedAt(slot, i, tick);
+            }
+            double transmitter = rows.weights.get(i);
+            if(entry >= 0) {
+                if(transmitter <= 0) {
+                    // Destroyable
+                    synapses.remove(slot, rows, i);
+                } else {
+                    // EPSP
+                    sink.deliver(entry, transmitter * epspMultiply, rows.delay(i));
+                    transmitted++;
+                    if(trace != null) {
+                        trace.record(slot, entry, tick);
                     }
-                    break;
-
-                case INHIBITORY:
-                    if(transmitter >= 0) {
-                        // Destroyable
-                        iterator.remove();
-                    } else {
-                        // IPSP
-                        executorService.execute(new Stimulator(entry.getKey(), transmitter * configuration.ipspMultiply));
-                        if(configuration.synapseReinforcing) {
-                            if(configuration.inhibitoryMaximumStrength != 0) {
-                                synapse.transmitter += (configuration.inhibitoryMaximumStrength - synapse.transmitter) * 0.0005d;
-                            } else {
-                                synapse.transmitter -= configuration.inhibitoryReinforcementRatio;
-                            }
+                    if(reinforcing) {
+                        if(excitatoryMaximumStrength != 0) {
+                            rows.weights.add(i, (excitatoryMaximumStrength - transmitter) * 0.0005d);
+                        } else {
+                            rows.weights.add(i, tuning.excitatoryReinforcementRatio);
                         }
-
-                        if(configuration.delayOnQueueStimulation > 0) {
-                            try {
-                                Thread.sleep(configuration.delayOnQueueStimulation);
-                            } catch (InterruptedException e) {
-                                e.printStackTrace();
-                            }
+                    }
+                }
+            } else {
+                if(transmitter >= 0) {
+                    // Destroyable
+                    synapses.remove(slot, rows, i);
+                } else {
+                    // IPSP
+                    sink.deliver(~entry, transmitter * ipspMultiply, rows.delay(i));
+                    transmitted++;
+                    if(trace != null) {
+                        trace.record(slot, entry, tick);
+                    }
+                    if(reinforcing) {
+                        if(inhibitoryMaximumStrength != 0) {
+                            rows.weights.add(i, (inhibitoryMaximumStrength - transmitter) * 0.0005d);
+                        } else {
+                            rows.weights.add(i, -tuning.inhibitoryReinforcementRatio);
                         }
                     }
-                    break;
-            }
-        }
-        sum.set(-77d);
-        absoluteRefractory.set(!absoluteRefractory.get());
-    }
-
-    void suppress(SynapseType synapseType) {
-        for(Synapse synapse : connections.values()) {
-            if(synapse.synapseType == synapseType) {
-                switch (synapseType) {
-                    case EXCITATORY:
-                        // down to 0
-                        synapse.transmitter -= configuration.excitatorySuppressionRatio;
-                        break;
-
-                    case INHIBITORY:
-                        // up to 0
-                        synapse.transmitter += configuration.inhibitorySuppressionRatio;
-                        break;
                 }
             }
         }
+        state.endFiring(slot);
+        return transmitted;
     }
 
-    void grow(SynapseType synapseType) {
-        for(Synapse synapse : connections.values()) {
-            if(synapse.synapseType == synapseType) {
-                switch (synapseType) {
-                    case EXCITATORY:
-                        synapse.transmitter += configuration.excitatoryGrowRatio;
-                        break;
-
-                    case INHIBITORY:
-                        synapse.transmitter -= configuration.inhibitoryGrowRatio;
-                        break;
-                }
-            }
-        }
+    /**
+     * Applies the decay of every synapse up to the given tick in closed form. Only the thread ticking
+     * the neuron decays its synapses; others read them through {@link #decayed(Tuning, boolean, double, long)}.
+     */
+    void decaySynapses(long tick, Tuning tuning) {
+        decaySynapses(tick, tuning, false);
     }
 
-    void suppressOf(SynapseType synapseType, List<Neuron> processed) {
-        if(processed.contains(this)) {
-            return;
-        }
-        processed.add(this);
-        for(Map.Entry<Neuron, Synapse> entry : connections.entrySet()) {
-            if(entry.getValue().synapseType == synapseType) {
-                switch (synapseType) {
-                    case EXCITATORY:
-                        // down to 0
-                        entry.getValue().transmitter -= configuration.excitatorySuppressionRatio;
-                        break;
-
-                    case INHIBITORY:
-                        // up to 0
-                        entry.getValue().transmitter += configuration.inhibitorySuppressionRatio;
-                        break;
-                }
-                entry.getKey().suppressOf(synapseType, processed);
-            }
-        }
+    /**
+     * Same as {@link #decaySynapses(long, Tuning)}, except that the decay of a weight too small to be stored in the precision
+     * of the weights without rounding away much of it is left pending, see {@link Weights#defers(double, double)}.
+     * The decay of a few ticks is then applied once it has added up, or at the latest before the neuron fires.
+     */
+    void decaySynapsesDeferred(long tick, Tuning tuning) {
+        decaySynapses(tick, tuning, true);
     }
 
-    void growOf(SynapseType synapseType, List<Neuron> processed) {
-        if(processed.contains(this)) {
+    private void decaySynapses(long tick, Tuning tuning, boolean deferring) {
+        if(tick <= state.getSynapsesDecayedAt(slot)) {
             return;
         }
-        processed.add(this);
-        for(Map.Entry<Neuron, Synapse> entry : connections.entrySet()) {
-            if(entry.getValue().synapseType == synapseType) {
-                switch (synapseType) {
-                    case EXCITATORY:
-                        entry.getValue().transmitter += configuration.excitatoryGrowRatio;
-                        break;
-
-                    case INHIBITORY:
-                        entry.getValue().transmitter -= configuration.inhibitoryGrowRatio;
-                        break;
+        boolean deferred = false;
+        SynapseTable.Rows rows = synapses.rows();
+        for(int i = rows.offsets[slot], end = rows.offsets[slot + 1]; i < end; i++) {
+            int entry = rows.targets.get(i);
+            if(entry == SynapseTable.REMOVED) {
+                continue;
+            }
+            long elapsed = tick - rows.decayedAt(slot, i);
+            if(elapsed > 0) {
+                double weight = rows.weights.get(i);
+                double decayed = decayed(tuning, entry >= 0, weight, elapsed);
+                if(deferring && rows.weights.defers(weight, decayed - weight)) {
+                    deferred = true;
+                    continue;
                 }
-                entry.getKey().growOf(synapseType, processed);
+                rows.weights.set(i, decayed);
+                rows.decayedAt(slot, i, tick);
             }
         }
+        if(!deferred) {
+            state.setSynapsesDecayedAt(slot, tick);
+        }
     }
 
-    void tick() {
-        if(refractory.get()) {
-            if(refractoryDuration.decrementAndGet() == 0) {
-                refractory.set(false);
+    /**
+     * Prunes the synapses weaker than {@link Tuning#pruningMagnitude} at the current tick, or not transmitted for
+     * the given number of ticks if use is tracked. Only the thread ticking the neuron prunes its synapses.
+     *
+     * @param idleTicks ticks after which an unused synapse is pruned, or 0 to keep unused synapses
+     * @return the number of pruned synapses
+     */
+    int prune(Tuning tuning, long idleTicks) {
+        double magnitude = tuning.pruningMagnitude;
+        SynapseTable.Rows rows = synapses.rows();
+        boolean idling = idleTicks > 0 && rows.usedAt != null;
+        long now = synapses.now(slot);
+        double excitatoryShift = synapses.unfolded(slot, true);
+        double inhibitoryShift = synapses.unfolded(slot, false);
+        int pruned = 0;
+        for(int i = rows.offsets[slot], end = rows.offsets[slot + 1]; i < end; i++) {
+            int entry = rows.targets.get(i);
+            if(entry == SynapseTable.REMOVED) {
+                continue;
+            }
+            boolean prunable = idling && now - rows.usedAt(slot, i) >= idleTicks;
+            if(!prunable && magnitude > 0) {
+                double shift = entry >= 0 ? excitatoryShift : inhibitoryShift;
+                double weight = decayed(tuning, entry >= 0, rows.weights.get(i) + shift, now - rows.decayedAt(slot, i));
+                prunable = entry >= 0 ? weight < magnitude : weight > -magnitude;
+            }
+            if(prunable) {
+                synapses.prune(slot, rows, i);
+                pruned++;
             }
         }
-        if(checkThreshold()) {
-            stimulate();
-        }
-        if(sum.get() != STABLE_POTENTIAL) {
-            double diff = sum.get() - STABLE_POTENTIAL;
-            diff /= 2;
-
-            double result = diff + STABLE_POTENTIAL;
+        return pruned;
+    }
 
-            if(Math.abs(diff) < 0.01) {
-                result = STABLE_POTENTIAL;
-            }
-            sum.set(Math.max(STABLE_POTENTIAL, result));
+    /**
+     * @return the weight after decaying for the given number of ticks, which is the weight itself
+     *         if synapses do not decay
+     */
+    private static double decayed(Tuning tuning, boolean excitatory, double weight, long ticks) {
+        if(ticks <= 0 || !tuning.synapseDecaying) {
+            return weight;
         }
-        if(configuration.synapseDecaying) {
-            for(Map.Entry<Neuron, Synapse> entry : connections.entrySet()) {
-                Synapse synapse = entry.getValue();
-                switch (synapse.synapseType) {
-                    case EXCITATORY:
-                        synapse.transmitter -= configuration.excitatoryDecayingRatio;
-                        break;
-
-                    case INHIBITORY:
-                        synapse.transmitter += configuration.inhibitoryDecayingRatio;
-                        break;
-                }
-            }
+        if(excitatory) {
+            return weight - tuning.excitatoryDecayingRatio * ticks;
         }
+        return weight + tuning.inhibitoryDecayingRatio * ticks;
     }
 
     /**
@@ -451,16 +428,13 @@ public class Neuron implements Serializable {
         } else if(ganglion != null) {
             ganglion.callback.accept(this, stimulation);
         } else {
-            if(refractory.get() && absoluteRefractory.get()) {
-                return;
-            }
-            sum.addAndGet(stimulation);
+            state.recept(slot, stimulation);
         }
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return id;
     }
 
     @Override
@@ -0,0 +1,316 @@
+package av.is.aegis;
+
+import com.google.common.util.concurrent.AtomicDoubleArray;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Dynamic state of every neuron of a network, kept as parallel primitive arrays indexed by neuron slot.
+ *
+ * Slots are laid out as input neurons, then inter neurons, then output neurons, so ticking a range
+ * of slots is a linear scan over contiguous memory instead of a walk over scattered neuron objects.
+ *
+ * The neuron objects themselves are kept as handles for callbacks and the public API.
+ *
+ * Potentials, refractory counters and flags are written only by the tick thread that owns the slot, so a range
+ * of slots can be ticked in blocks by a {@link TickKernel}. Stimulation from delivery workers is added to an
+ * atomic pending sum per slot instead, or once {@link #stripe(int) striped}, to one of several partial sums per slot
+ * chosen by the delivering thread, and the tick thread folds them into the potential.
+ */
+class NeuronState {
+
+    private static final int REFRACTORY_DURATION = 2;
+
+    private static final TickKernel KERNEL = VectorKernels.tickKernel();
+
+    private final int size;
+
+    private final Neuron[] neurons;
+    private final double[] potential;
+    private final double[] threshold;
+    /**
+     * Ticks left of the refractory period, 0 once the neuron is no longer refractory.
+     */
+    private final int[] refractoryDuration;
+    private final boolean[] absoluteRefractory;
+    private final boolean[] marked;
+    private final boolean[] relay;
+    private final long[] synapsesDecayedAt;
+
+    /**
+     * Partial sums of striped accumulation as raw double bits, laid out stripe by stripe
+     * so the partial sums of a slot never share a cache line.
+     */
+    private AtomicLongArray cells;
+    private int stripeMask;
+
+    /**
+     * Index of the partial sums of each delivering thread, handed out in the order the threads first deliver,
+     * so the threads are spread over the partial sums evenly.
+     */
+    private final AtomicInteger stripes = new AtomicInteger();
+    private final ThreadLocal<Integer> stripe = ThreadLocal.withInitial(stripes::getAndIncrement);
+
+    /**
+     * Stimulation from other threads not folded yet, including stimulation coalesced by target while a delivery queue was full.
+     */
+    private final AtomicDoubleArray incoming;
+
+    private ActiveSet active;
+
+    NeuronState(int size) {
+        this.size = size;
+
+        this.neurons = new Neuron[size];
+        this.potential = new double[size];
+        this.threshold = new double[size];
+        this.refractoryDuration = new int[size];
+        this.absoluteRefractory = new boolean[size];
+        this.marked = new boolean[size];
+        this.relay = new boolean[size];
+        this.synapsesDecayedAt = new long[size];
+        this.incoming = new AtomicDoubleArray(size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void attach(int slot, Neuron neuron, int threshold, boolean marked, boolean relay) {
+        this.neurons[slot] = neuron;
+        this.potential[slot] = Neuron.STABLE_POTENTIAL;
+        this.threshold[slot] = threshold;
+        this.marked[slot] = marked;
+        this.relay[slot] = relay;
+    }
+
+    Neuron neuron(int slot) {
+        return neurons[slot];
+    }
+
+    /**
+     * Splits the accumulation of incoming stimulation into the given number of partial sums per slot,
+     * rounded up to a power of two. Has to be called before any stimulation is delivered.
+     */
+    void stripe(int stripes) {
+        int count = Integer.highestOneBit(Math.max(2, stripes - 1) << 1);
+        this.cells = new AtomicLongArray(count * size);
+        this.stripeMask = count - 1;
+    }
+
+    boolean isStriped() {
+        return cells != null;
+    }
+
+    /**
+     * Activates the slots receiving stimulation in the given set from now on.
+     */
+    void track(ActiveSet active) {
+        this.active = active;
+    }
+
+    /**
+     * @return whether the neuron at the slot rests at the stable potential, is not refractory
+     *         and has no stimulation pending
+     */
+    boolean isQuiescent(int slot) {
+        return refractoryDuration[slot] == 0 && getPotential(slot) == Neuron.STABLE_POTENTIAL;
+    }
+
+    /**
+     * @return the potential including stimulation not folded yet
+     */
+    double getPotential(int slot) {
+        double value = potential[slot] + incoming.get(slot);
+        if(cells != null) {
+            for(int index = slot; index < cells.length(); index += size) {
+                value += Double.longBitsToDouble(cells.get(index));
+            }
+        }
+        return value;
+    }
+
+    boolean isRefractory(int slot) {
+        return refractoryDuration[slot] > 0;
+    }
+
+    boolean isMarked(int slot) {
+        return marked[slot];
+    }
+
+    void setMarked(int slot) {
+        marked[slot] = true;
+        if(active != null && !isQuiescent(slot)) {
+            active.activate(slot);
+        }
+    }
+
+    /**
+     * @return whether the neuron at the slot hands its stimulation to an {@link OutputConsumer}
+     *         (output neurons and ganglions) instead of integrating it
+     */
+    boolean isRelay(int slot) {
+        return relay[slot];
+    }
+
+    void setRelay(int slot, boolean relay) {
+        this.relay[slot] = relay;
+    }
+
+    /**
+     * @return the tick up to which every synapse of the slot has decayed
+     */
+    long getSynapsesDecayedAt(int slot) {
+        return synapsesDecayedAt[slot];
+    }
+
+    void setSynapsesDecayedAt(int slot, long tick) {
+        synapsesDecayedAt[slot] = tick;
+    }
+
+    void recept(int slot, double stimulation) {
+        if(refractoryDuration[slot] > 0 && absoluteRefractory[slot]) {
+            return;
+        }
+        if(cells == null) {
+            incoming.addAndGet(slot, stimulation);
+        } else {
+            int index = (stripe.get() & stripeMask) * size + slot;
+            long current;
+            do {
+                current = cells.get(index);
+            } while(!cells.compareAndSet(index, current, Double.doubleToRawLongBits(Double.longBitsToDouble(current) + stimulation)));
+        }
+        if(active != null) {
+            active.activate(slot);
+        }
+    }
+
+    /**
+     * Adds stimulation to the pending sum of the slot, folded into the potential on its next tick.
+     */
+    void coalesce(int slot, double stimulation) {
+        if(refractoryDuration[slot] > 0 && absoluteRefractory[slot]) {
+            return;
+        }
+        incoming.addAndGet(slot, stimulation);
+        if(active != null) {
+            active.activate(slot);
+        }
+    }
+
+    /**
+     * Folds the pending stimulation and the partial sums of a striped slot into its potential.
+     * Only the tick thread owning the slot folds.
+     */
+    void fold(int slot) {
+        double stimulation = 0;
+        if(cells != null) {
+            for(int index = slot; index < cells.length(); index += size) {
+                if(cells.get(index) != 0) {
+                    stimulation += Double.longBitsToDouble(cells.getAndSet(index, 0));
+                }
+            }
+        }
+        if(incoming.get(slot) != 0) {
+            stimulation += incoming.getAndSet(slot, 0);
+        }
+        if(stimulation != 0) {
+            potential[slot] += stimulation;
+        }
+    }
+
+    /**
+     * Same as {@link #recept(int, double)} for the only thread writing the potential of the slot.
+     */
+    void integrate(int slot, double stimulation) {
+        if(refractoryDuration[slot] > 0 && absoluteRefractory[slot]) {
+            return;
+        }
+        potential[slot] += stimulation;
+        if(active != null) {
+            active.activate(slot);
+        }
+    }
+
+    /**
+     * Counts down the refractory period of the slot.
+     *
+     * @return whether the potential has reached the threshold and the neuron should fire
+     */
+    boolean advance(int slot) {
+        if(refractoryDuration[slot] > 0) {
+            refractoryDuration[slot]--;
+        }
+        return reachedThreshold(slot);
+    }
+
+    /**
+     * Same as {@link #advance(int)} followed by {@link #decay(int)} for every marked slot in the range which should not fire,
+     * for a tick thread owning all of them. A slot which should fire is left to be decayed after firing, which
+     * changes nothing as firing resets it to the stable potential. Unmarked slots are counted down as well,
+     * which changes nothing as they never fire.
+     *
+     * @param fired receives the marked slots which should fire, has to hold {@code to - from} of them
+     * @return the number of slots written to {@code fired}
+     */
+    int advance(int from, int to, int[] fired) {
+        return KERNEL.tick(potential, threshold, refractoryDuration, marked, from, to, fired);
+    }
+
+    boolean reachedThreshold(int slot) {
+        return potential[slot] >= threshold[slot];
+    }
+
+    void beginFiring(int slot) {
+        refractoryDuration[slot] = REFRACTORY_DURATION;
+    }
+
+    void endRefractory(int slot) {
+        refractoryDuration[slot] = 0;
+    }
+
+    void endFiring(int slot) {
+        potential[slot] = Neuron.STABLE_POTENTIAL;
+        absoluteRefractory[slot] = !absoluteRefractory[slot];
+    }
+
+    /**
+     * Halves the distance between the potential and the stable potential.
+     */
+    void decay(int slot) {
+        double value = potential[slot];
+        if(value != Neuron.STABLE_POTENTIAL) {
+            potential[slot] = decayed(value);
+        }
+    }
+
+    /**
+     * Applies the decay of the given number of ticks at once. The potential reaches the stable potential
+     * after a few dozen ticks at most, so this costs the same as eager ticking for short gaps and nothing
+     * more for long ones, while producing exactly the same value.
+     */
+    void decay(int slot, long ticks) {
+        double value = potential[slot];
+        if(value != Neuron.STABLE_POTENTIAL && ticks > 0) {
+            double result = value;
+            for(long i = 0; i < ticks && result != Neuron.STABLE_POTENTIAL; i++) {
+                result = decayed(result);
+            }
+            potential[slot] = result;
+        }
+    }
+
+    private static double decayed(double value) {
+        double diff = value - Neuron.STABLE_POTENTIAL;
+        diff /= 2;
+
+        double result = diff + Neuron.STABLE_POTENTIAL;
+
+        if(Math.abs(diff) < ScalarTickKernel.SNAP_DISTANCE) {
+            result = Neuron.STABLE_POTENTIAL;
+        }
+        return Math.max(Neuron.STABLE_POTENTIAL, result);
+    }
+}
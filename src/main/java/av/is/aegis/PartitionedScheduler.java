@@ -0,0 +1,168 @@
+package av.is.aegis;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Every neuron is owned by exactly one partition thread, which is the only thread ever writing its state.
+ *
+ * The slots are split into contiguous partitions. Stimulation between neurons of the same partition is
+ * integrated right away, while stimulation to a neuron of another partition, or injected from outside,
+ * travels through the {@link SpikeRing} mailbox of the owning partition and is integrated when the owner
+ * drains it. Neither the potential nor the refractory state of a neuron is shared between cores, so no
+ * compare-and-swap is needed and cache lines only move through the mailboxes.
+ *
+ * A partition only visits its neurons in the {@link ActiveSet} and waits on its mailbox once none is left.
+ *
+ * The first partition merges appended synapses between two of its passes, once every other partition has finished
+ * its pass, see {@link TickScheduler#mergeIfDue(Runnable)}.
+ */
+class PartitionedScheduler extends TickScheduler {
+
+    private static final int DRAIN_BATCH = 1024;
+
+    private final SpikeRing[] mailboxes;
+
+    private final ActiveSet active;
+    private final AtomicLongArray clocks;
+
+    private final AtomicLong ticks = new AtomicLong();
+
+    PartitionedScheduler(NeuronState state, SynapseTable synapses, Network.Configuration configuration, int partitions) {
+        super(state, synapses, configuration, Math.max(1, Math.min(partitions, state.size())));
+        this.active = new ActiveSet(state.size(), threads);
+        state.track(active);
+        this.clocks = new AtomicLongArray(threads);
+        synapses.clock(slot -> clocks.get(active.owner(slot)));
+        this.mailboxes = new SpikeRing[threads];
+        for(int i = 0; i < threads; i++) {
+            mailboxes[i] = new SpikeRing(queueCapacity(), configuration.overflowPolicy, dropped);
+        }
+    }
+
+    private int owner(int slot) {
+        return active.owner(slot);
+    }
+
+    @Override
+    void start() {
+        for(int i = 0; i < threads; i++) {
+            int partition = i;
+            thread("Network Ticking - Partition #" + partition).runnable(() -> {
+                SpikeRing mailbox = mailboxes[partition];
+                mailbox.bind(Thread.currentThread());
+                active.bind(partition, Thread.currentThread());
+
+                SpikeRing.Receiver receiver = this::receive;
+                boolean blocking = configuration.overflowPolicy == Network.OverflowPolicy.BLOCK;
+                SpikeSink remote = (target, stimulation, delay) -> {
+                    SpikeRing other = mailboxes[owner(target)];
+                    if(blocking) {
+                        // Keeps draining its own mailbox while the other one is full, so two partitions
+                        // flooding each other cannot wait on each other forever.
+                        while(!other.tryOffer(target, stimulation)) {
+                            if(mailbox.drain(receiver, DRAIN_BATCH) == 0) {
+                                Thread.yield();
+                            }
+                        }
+                    } else if(!other.offer(target, stimulation)) {
+                        coalesce(target, stimulation);
+                    }
+                };
+                CoalescingSink coalescing = configuration.coalesceWithinTick ? new CoalescingSink(state, remote) : null;
+                SpikeSink sink = (target, stimulation, delay) -> {
+                    if(state.isRelay(target)) {
+                        state.neuron(target).recept(stimulation);
+                    } else if(owner(target) == partition) {
+                        state.integrate(target, stimulation);
+                    } else if(coalescing != null) {
+                        coalescing.deliver(target, stimulation, delay);
+                    } else {
+                        remote.deliver(target, stimulation, delay);
+                    }
+                };
+
+                EligibilityTrace trace = createTrace();
+
+                int start = active.from(partition);
+                int end = active.to(partition);
+
+                SynapsePruning pruning = pruning(start, end);
+                // A partition waiting for room in the mailbox of the first one keeps writing until it is drained.
+                Runnable draining = () -> mailbox.drain(receiver, DRAIN_BATCH);
+
+                Tuning tuning = configuration.tuning();
+                long now = 0;
+                while(true) {
+                    if(partition == 0) {
+                        mergeIfDue(draining);
+                    }
+                    clocks.lazySet(partition, ++now);
+                    ticks.accumulateAndGet(now, Math::max);
+                    Tuning next = configuration.tuning();
+                    delay(next);
+                    beginWriting();
+                    tuning = settle(start, end, now - 1, tuning, next);
+                    applyRewards(trace, now);
+                    pruning.sweep(tuning);
+
+                    long started = System.nanoTime();
+                    while(mailbox.drain(receiver, DRAIN_BATCH) == DRAIN_BATCH);
+
+                    long transmitted = 0;
+                    for(int slot = active.next(start, end); slot != -1; slot = active.next(slot + 1, end)) {
+                        if(state.isMarked(slot)) {
+                            transmitted += tick(slot, sink, trace, now, tuning);
+                        }
+                        settle(active, slot);
+                    }
+                    endWriting();
+                    if(transmitted > 0) {
+                        this.transmitted.addAndGet(transmitted);
+                    }
+                    if(coalescing != null) {
+                        coalescing.flush();
+                    }
+                    busy(partition, System.nanoTime() - started);
+                    if(partition == 0) {
+                        ticked(now);
+                    }
+                    // Stimulation from other partitions arrives through the mailbox, which wakes its consumer.
+                    while(active.next(start, end) == -1 && mailbox.isEmpty()) {
+                        mailbox.awaitEntries();
+                        if(partition == 0) {
+                            mergeIfDue(draining);
+                        }
+                    }
+                }
+            }).start();
+        }
+    }
+
+    private void receive(int target, double stimulation) {
+        state.integrate(target, stimulation);
+    }
+
+    @Override
+    void inject(int slot, double stimulation) {
+        if(state.isRelay(slot)) {
+            state.neuron(slot).recept(stimulation);
+        } else if(!mailboxes[owner(slot)].offer(slot, stimulation)) {
+            coalesce(slot, stimulation);
+        }
+    }
+
+    @Override
+    int getAwaitingStimulations() {
+        int pending = 0;
+        for(SpikeRing mailbox : mailboxes) {
+            pending += mailbox.size();
+        }
+        return pending;
+    }
+
+    @Override
+    long getTicks() {
+        return ticks.get();
+    }
+}
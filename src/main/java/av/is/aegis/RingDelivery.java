@@ -0,0 +1,68 @@
+package av.is.aegis;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers stimulation through preallocated {@link SpikeRing}s, each drained by its own worker thread.
+ *
+ * A target slot always maps to the same ring, so every neuron receives its stimulation from a single worker.
+ * Neither transmitting nor receiving allocates, unlike submitting a task per stimulation to a thread pool.
+ */
+class RingDelivery implements SpikeSink {
+
+    private static final int DRAIN_BATCH = 256;
+
+    private final NeuronState state;
+    private final SpikeRing[] rings;
+    private final SpikeRing.Receiver overflow;
+
+    /**
+     * @param overflow receives the stimulation to coalesce while a ring is full
+     */
+    RingDelivery(NeuronState state, int workers, int capacity, Network.OverflowPolicy policy, AtomicLong dropped, SpikeRing.Receiver overflow) {
+        this.state = state;
+        this.rings = new SpikeRing[workers];
+        for(int i = 0; i < workers; i++) {
+            rings[i] = new SpikeRing(capacity, policy, dropped);
+        }
+        this.overflow = overflow;
+    }
+
+    void start(ThreadStatistic statistic) {
+        for(int i = 0; i < rings.length; i++) {
+            SpikeRing ring = rings[i];
+            ThreadBuilder.builder().name("Spike Delivery - #" + i).statistic(statistic).runnable(() -> {
+                ring.bind(Thread.currentThread());
+                SpikeRing.Receiver receiver = this::receive;
+                while(true) {
+                    if(ring.drain(receiver, DRAIN_BATCH) == 0) {
+                        ring.awaitEntries();
+                    }
+                }
+            }).start();
+        }
+    }
+
+    @Override
+    public void deliver(int target, double stimulation, int delay) {
+        if(!rings[target % rings.length].offer(target, stimulation)) {
+            overflow.receive(target, stimulation);
+        }
+    }
+
+    private void receive(int target, double stimulation) {
+        if(state.isRelay(target)) {
+            state.neuron(target).recept(stimulation);
+        } else {
+            state.recept(target, stimulation);
+        }
+    }
+
+    int pending() {
+        int pending = 0;
+        for(SpikeRing ring : rings) {
+            pending += ring.size();
+        }
+        return pending;
+    }
+}
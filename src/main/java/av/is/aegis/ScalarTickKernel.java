@@ -0,0 +1,39 @@
+package av.is.aegis;
+
+/**
+ * {@link TickKernel} as a plain loop without branches in its body, which the JIT is free to unroll
+ * and auto-vectorize.
+ */
+class ScalarTickKernel implements TickKernel {
+
+    static final double SNAP_DISTANCE = 0.01d;
+
+    @Override
+    public int tick(double[] potential, double[] threshold, int[] refractoryDuration, boolean[] marked, int from, int to, int[] fired) {
+        return tick(potential, threshold, refractoryDuration, marked, from, to, fired, 0);
+    }
+
+    /**
+     * Same as {@link #tick(double[], double[], int[], boolean[], int, int, int[])}, appending to the given number
+     * of slots collected before.
+     *
+     * @return the number of slots in {@code fired} including those collected before
+     */
+    static int tick(double[] potential, double[] threshold, int[] refractoryDuration, boolean[] marked, int from, int to, int[] fired, int count) {
+        for(int slot = from; slot < to; slot++) {
+            refractoryDuration[slot] = Math.max(0, refractoryDuration[slot] - 1);
+
+            double value = potential[slot];
+            boolean firing = marked[slot] & value >= threshold[slot];
+            // Every slot is written, but only a firing one moves the end on.
+            fired[count] = slot;
+            count += firing ? 1 : 0;
+
+            double diff = (value - Neuron.STABLE_POTENTIAL) * 0.5d;
+            double result = Math.abs(diff) < SNAP_DISTANCE ? Neuron.STABLE_POTENTIAL : diff + Neuron.STABLE_POTENTIAL;
+            result = Math.max(Neuron.STABLE_POTENTIAL, result);
+            potential[slot] = marked[slot] & !firing ? result : value;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,203 @@
+package av.is.aegis;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer, single-consumer ring of (target slot, stimulation) pairs.
+ *
+ * Entries are kept in preallocated primitive arrays. A producer claims a sequence, writes the entry and
+ * publishes it by storing the sequence into the slot marker, so offering and draining never allocate.
+ * The consumer parks when the ring is empty and is woken by the next producer.
+ *
+ * What happens to an entry offered to a full ring is decided by its {@link Network.OverflowPolicy}.
+ * Dropped entries are counted; entries to coalesce are handed back to the producer.
+ */
+class SpikeRing {
+
+    @FunctionalInterface
+    interface Receiver {
+
+        void receive(int target, double stimulation);
+
+    }
+
+    private static final int SPINS = 1 << 8;
+    private static final int YIELDS = SPINS + (1 << 4);
+    private static final long PARK_NANOS = 1_000_000L;
+
+    private final int capacity;
+    private final int mask;
+    private final Network.OverflowPolicy policy;
+    private final AtomicLong dropped;
+
+    private final int[] targets;
+    private final double[] stimulations;
+    private final AtomicLongArray published;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    private volatile Thread consumer;
+    private volatile boolean sleeping;
+
+    SpikeRing(int capacity, Network.OverflowPolicy policy, AtomicLong dropped) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.mask = this.capacity - 1;
+        this.policy = policy;
+        this.dropped = dropped;
+
+        this.targets = new int[this.capacity];
+        this.stimulations = new double[this.capacity];
+        this.published = new AtomicLongArray(this.capacity);
+        for(int i = 0; i < this.capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    void bind(Thread consumer) {
+        this.consumer = consumer;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    boolean isEmpty() {
+        long sequence = head.get();
+        return published.get((int) (sequence & mask)) != sequence;
+    }
+
+    /**
+     * Publishes an entry, applying the overflow policy while the ring is full.
+     *
+     * @return false if the ring is full and the entry has to be coalesced by the producer, true otherwise
+     */
+    boolean offer(int target, double stimulation) {
+        switch (policy) {
+            case DROP_NEWEST:
+                if(!tryOffer(target, stimulation)) {
+                    dropped.incrementAndGet();
+                }
+                return true;
+
+            case DROP_OLDEST:
+                while(!tryOffer(target, stimulation)) {
+                    dropOldest();
+                }
+                return true;
+
+            case COALESCE:
+                return tryOffer(target, stimulation);
+
+            case BLOCK:
+            default:
+                int waited = 0;
+                while(!tryOffer(target, stimulation)) {
+                    waited = backOff(waited);
+                }
+                return true;
+        }
+    }
+
+    /**
+     * Discards the entry at the head if it has been published already.
+     */
+    private void dropOldest() {
+        long sequence = head.get();
+        if(published.get((int) (sequence & mask)) == sequence && head.compareAndSet(sequence, sequence + 1)) {
+            dropped.incrementAndGet();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Publishes an entry unless the ring is full.
+     *
+     * @return whether the entry was published
+     */
+    boolean tryOffer(int target, double stimulation) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if(sequence - head.get() >= capacity) {
+                return false;
+            }
+        } while(!tail.compareAndSet(sequence, sequence + 1));
+        int index = (int) (sequence & mask);
+        targets[index] = target;
+        stimulations[index] = stimulation;
+        published.set(index, sequence);
+
+        if(sleeping) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * Hands up to {@code limit} published entries to the receiver. Only the consumer thread drains.
+     *
+     * @return the number of drained entries
+     */
+    int drain(Receiver receiver, int limit) {
+        boolean contended = policy == Network.OverflowPolicy.DROP_OLDEST;
+        long sequence = head.get();
+        int drained = 0;
+        while(drained < limit) {
+            int index = (int) (sequence & mask);
+            if(published.get(index) != sequence) {
+                break;
+            }
+            int target = targets[index];
+            double stimulation = stimulations[index];
+            if(contended) {
+                // Producers may have dropped the entry meanwhile, in which case it is skipped.
+                if(!head.compareAndSet(sequence, sequence + 1)) {
+                    sequence = head.get();
+                    continue;
+                }
+                sequence++;
+            } else {
+                head.lazySet(++sequence);
+            }
+            drained++;
+
+            receiver.receive(target, stimulation);
+        }
+        return drained;
+    }
+
+    /**
+     * Waits on the consumer side until an entry may have been published.
+     */
+    void awaitEntries() {
+        for(int waited = 0; waited < YIELDS; waited++) {
+            if(!isEmpty()) {
+                return;
+            }
+            if(waited >= SPINS) {
+                Thread.yield();
+            }
+        }
+        sleeping = true;
+        if(isEmpty()) {
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+        sleeping = false;
+    }
+
+    private static int backOff(int waited) {
+        if(waited < SPINS) {
+            return waited + 1;
+        }
+        if(waited < YIELDS) {
+            Thread.yield();
+            return waited + 1;
+        }
+        LockSupport.parkNanos(PARK_NANOS / 100);
+        return waited;
+    }
+}
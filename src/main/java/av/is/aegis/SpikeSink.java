@@ -0,0 +1,14 @@
+package av.is.aegis;
+
+/**
+ * Receives the stimulation a firing neuron transmits through one of its synapses.
+ */
+@FunctionalInterface
+interface SpikeSink {
+
+    /**
+     * @param delay additional transmission delay of the synapse in ticks, honoured by schedulers modelling time
+     */
+    void deliver(int target, double stimulation, int delay);
+
+}
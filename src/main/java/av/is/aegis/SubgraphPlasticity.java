@@ -0,0 +1,131 @@
+package av.is.aegis;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Changes every synapse of a type that is reachable from a neuron through synapses of that type,
+ * visiting each neuron once.
+ *
+ * The neurons are visited breadth first with an explicit frontier, so deep chains need no stack, and a visited
+ * bitset indexed by slot decides in constant time whether a neuron was reached before. A large frontier is expanded
+ * in parallel: every neuron is claimed in the bitset by exactly one thread, which is then the only one changing
+ * its synapses.
+ *
+ * The synapses of a visited neuron are changed through a shift of its synapses of the type, see {@link SynapseTable},
+ * which the thread ticking the neuron folds into the weights. The traversal only reads the published rows, so it
+ * neither races with the tick threads writing to them nor loses changes to a merge.
+ */
+class SubgraphPlasticity {
+
+    /**
+     * Frontiers smaller than this are expanded by the calling thread alone.
+     */
+    static final int PARALLEL_FRONTIER = 512;
+    private static final int CHUNK = 128;
+
+    private final NeuronState state;
+    private final SynapseTable synapses;
+
+    SubgraphPlasticity(NeuronState state, SynapseTable synapses) {
+        this.state = state;
+        this.synapses = synapses;
+    }
+
+    /**
+     * Adds the delta to every synapse of the type reachable from the slot.
+     *
+     * @return the number of visited neurons
+     */
+    int apply(int start, SynapseType synapseType, double delta) {
+        AtomicLongArray visited = new AtomicLongArray((state.size() + 63) >>> 6);
+        claim(visited, start);
+
+        Frontier frontier = new Frontier();
+        frontier.add(start);
+        int count = 0;
+        while(frontier.size > 0) {
+            count += frontier.size;
+            if(frontier.size < PARALLEL_FRONTIER) {
+                Frontier next = new Frontier();
+                for(int i = 0; i < frontier.size; i++) {
+                    expand(visited, frontier.slots[i], synapseType, delta, next);
+                }
+                frontier = next;
+            } else {
+                frontier = expandInParallel(visited, frontier, synapseType, delta);
+            }
+        }
+        return count;
+    }
+
+    private Frontier expandInParallel(AtomicLongArray visited, Frontier frontier, SynapseType synapseType, double delta) {
+        int chunks = (frontier.size + CHUNK - 1) / CHUNK;
+        Frontier[] parts = IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+            Frontier part = new Frontier();
+            for(int i = chunk * CHUNK, end = Math.min(frontier.size, i + CHUNK); i < end; i++) {
+                expand(visited, frontier.slots[i], synapseType, delta, part);
+            }
+            return part;
+        }).toArray(Frontier[]::new);
+
+        Frontier next = new Frontier();
+        for(Frontier part : parts) {
+            next.addAll(part);
+        }
+        return next;
+    }
+
+    /**
+     * Changes the synapses of the type of the source and adds their targets reached for the first time to the next frontier.
+     */
+    private void expand(AtomicLongArray visited, int source, SynapseType synapseType, double delta, Frontier next) {
+        synapses.shift(source, synapseType, delta);
+        SynapseTable.Rows rows = synapses.rows();
+        for(int i = rows.offsets[source], end = rows.offsets[source + 1]; i < end; i++) {
+            int entry = rows.targets.get(i);
+            if(entry == SynapseTable.REMOVED || SynapseTable.synapseType(entry) != synapseType) {
+                continue;
+            }
+            int target = SynapseTable.target(entry);
+            if(claim(visited, target)) {
+                next.add(target);
+            }
+        }
+    }
+
+    private static boolean claim(AtomicLongArray visited, int slot) {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        long current;
+        do {
+            current = visited.get(word);
+            if((current & bit) != 0) {
+                return false;
+            }
+        } while(!visited.compareAndSet(word, current, current | bit));
+        return true;
+    }
+
+    private static class Frontier {
+
+        private int[] slots = new int[16];
+        private int size;
+
+        void add(int slot) {
+            if(size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void addAll(Frontier other) {
+            if(size + other.size > slots.length) {
+                slots = Arrays.copyOf(slots, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.slots, 0, slots, size, other.size);
+            size += other.size;
+        }
+    }
+}
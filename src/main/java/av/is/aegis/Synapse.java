@@ -8,5 +8,6 @@ public class Synapse implements Serializable {
 
     double transmitter;
     SynapseType synapseType;
+    int delay;
 
 }
@@ -0,0 +1,44 @@
+package av.is.aegis;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Allocation of the per-synapse columns of a {@link SynapseTable} in the {@link Network.SynapseStorage} of the network.
+ *
+ * Every column is a buffer of the primitive type, either wrapping an array on the heap or viewing direct memory
+ * outside of it, so the code reading and writing synapses is the same for both.
+ */
+final class SynapseBuffers {
+
+    private SynapseBuffers() {
+    }
+
+    static IntBuffer ints(Network.SynapseStorage storage, int length) {
+        return storage == Network.SynapseStorage.OFF_HEAP ? direct(length, Integer.BYTES).asIntBuffer() : IntBuffer.allocate(length);
+    }
+
+    static DoubleBuffer doubles(Network.SynapseStorage storage, int length) {
+        return storage == Network.SynapseStorage.OFF_HEAP ? direct(length, Double.BYTES).asDoubleBuffer() : DoubleBuffer.allocate(length);
+    }
+
+    static FloatBuffer floats(Network.SynapseStorage storage, int length) {
+        return storage == Network.SynapseStorage.OFF_HEAP ? direct(length, Float.BYTES).asFloatBuffer() : FloatBuffer.allocate(length);
+    }
+
+    static ByteBuffer bytes(Network.SynapseStorage storage, int length) {
+        return storage == Network.SynapseStorage.OFF_HEAP ? direct(length, Byte.BYTES) : ByteBuffer.allocate(length);
+    }
+
+    static Network.SynapseStorage storage(Buffer buffer) {
+        return buffer.isDirect() ? Network.SynapseStorage.OFF_HEAP : Network.SynapseStorage.HEAP;
+    }
+
+    private static ByteBuffer direct(int length, int bytes) {
+        return ByteBuffer.allocateDirect(length * bytes).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,56 @@
+package av.is.aegis;
+
+/**
+ * Prunes the synapses of a range of neurons a few at a time, so weak or unused synapses are removed without
+ * waiting for their source to fire and without holding up the tick.
+ *
+ * Every call visits the sources of the range that follow those visited by the last call, wrapping around,
+ * until about {@link #SYNAPSES_PER_SWEEP} synapses were visited. A sweep has to be run by the thread ticking
+ * the range, at the start or end of a tick, as pruning removes synapses in place like firing does.
+ */
+class SynapsePruning {
+
+    static final int SYNAPSES_PER_SWEEP = 1024;
+
+    private final NeuronState state;
+    private final SynapseTable synapses;
+    private final long idleTicks;
+    private final int from;
+    private final int to;
+
+    private int cursor;
+
+    /**
+     * @param idleTicks ticks after which an unused synapse is pruned, or 0 to keep unused synapses
+     */
+    SynapsePruning(NeuronState state, SynapseTable synapses, long idleTicks, int from, int to) {
+        this.state = state;
+        this.synapses = synapses;
+        this.idleTicks = idleTicks;
+        this.from = from;
+        this.to = to;
+        this.cursor = from;
+    }
+
+    /**
+     * @return the number of pruned synapses
+     */
+    int sweep(Tuning tuning) {
+        if(tuning.pruningMagnitude == 0 && idleTicks == 0 || from == to) {
+            return 0;
+        }
+        int[] offsets = synapses.rows().offsets;
+        int visited = 0;
+        int pruned = 0;
+        for(int sources = to - from; sources > 0 && visited < SYNAPSES_PER_SWEEP; sources--) {
+            int slot = cursor;
+            cursor = slot + 1 == to ? from : slot + 1;
+            int length = offsets[slot + 1] - offsets[slot];
+            if(length > 0) {
+                pruned += state.neuron(slot).prune(tuning, idleTicks);
+            }
+            visited += length + 1;
+        }
+        return pruned;
+    }
+}
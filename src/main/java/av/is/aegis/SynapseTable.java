@@ -0,0 +1,589 @@
+package av.is.aegis;
+
+import com.google.common.util.concurrent.AtomicDoubleArray;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Outgoing synapses of every neuron in compressed sparse row (CSR) layout.
+ *
+ * The synapses of the neuron at slot {@code s} occupy {@code [offsets[s], offsets[s + 1])} of the shared
+ * {@code targets} and {@code weights} columns. A target entry holds the target slot for an excitatory synapse
+ * and its bitwise complement (always negative) for an inhibitory synapse, so the sign of the entry encodes
+ * the {@link SynapseType} independently of the transmitter, which may cross zero before it is removed.
+ *
+ * Synapses may carry an additional transmission delay in ticks. The delays are only allocated once a delayed
+ * synapse exists, so networks without delays pay nothing for them.
+ *
+ * New synapses are appended to a buffer and merged into a freshly published {@link Rows} periodically,
+ * which also drops removed entries. Weights are updated in place on the currently published rows, so a merge has to wait
+ * for every tick thread writing to them, see {@link TickScheduler#mergeIfDue(Runnable)}.
+ *
+ * Weights are stored in the {@link Network.Precision} of the network, see {@link Weights}. Every per-synapse column
+ * is stored in the {@link Network.SynapseStorage} of the network, see {@link SynapseBuffers}; only the offsets,
+ * one per neuron, always stay on the heap.
+ *
+ * Synapses may be pruned while the network ticks, see {@link SynapsePruning}, in which case the tick every synapse
+ * last transmitted at is stored as well. Pruned synapses are removed like any other, and the storage they took
+ * is reclaimed by the next merge.
+ *
+ * Synapse decay is applied lazily: every synapse remembers the tick up to which its weight has decayed,
+ * in the clock of the thread ticking its source, and a merged synapse starts decaying at its merge. The ticks are
+ * stored as {@code int} offsets from a tick per source, which moves along once a tick no longer fits.
+ *
+ * Plasticity applied to every synapse of a type is deferred as well: it only adds to a global shift of the type,
+ * or to a shift of the type of a single source, and every source remembers the shifts its weights include. The thread
+ * ticking the source folds the difference into the weights before they transmit, and a synapse appended in between
+ * starts from the shifts at its append. Plasticity from any other thread therefore never writes to the rows.
+ */
+class SynapseTable {
+
+    static final int REMOVED = Integer.MIN_VALUE;
+    static final int MAXIMUM_DELAY = 0xFF;
+
+    private static final int MINIMUM_MERGE_THRESHOLD = 64;
+    private static final long MERGE_INTERVAL_NANOS = 10_000_000L;
+    private static final int MERGE_INTERVAL_TICKS = 16;
+
+    static class Rows {
+
+        final int[] offsets;
+        final IntBuffer targets;
+        final Weights weights;
+        /**
+         * Tick every synapse has decayed up to, as an offset from the stamp base of its source.
+         */
+        final IntBuffer decayedAt;
+        final ByteBuffer delays;
+        /**
+         * Tick every synapse last transmitted at as an offset from the stamp base of its source, or null unless use
+         * is tracked.
+         */
+        final IntBuffer usedAt;
+        /**
+         * The tick the stamps of the synapses of every source are offsets from, kept on the heap like the offsets.
+         */
+        final long[] stampBases;
+
+        Rows(int[] offsets, IntBuffer targets, Weights weights, IntBuffer decayedAt, ByteBuffer delays, IntBuffer usedAt, long[] stampBases) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.decayedAt = decayedAt;
+            this.delays = delays;
+            this.usedAt = usedAt;
+            this.stampBases = stampBases;
+        }
+
+        int delay(int index) {
+            return delays == null ? 0 : delays.get(index) & MAXIMUM_DELAY;
+        }
+
+        long decayedAt(int source, int index) {
+            return stampBases[source] + decayedAt.get(index);
+        }
+
+        void decayedAt(int source, int index, long tick) {
+            decayedAt.put(index, stamp(source, tick));
+        }
+
+        long usedAt(int source, int index) {
+            return stampBases[source] + usedAt.get(index);
+        }
+
+        void usedAt(int source, int index, long tick) {
+            usedAt.put(index, stamp(source, tick));
+        }
+
+        /**
+         * @return the tick as an offset from the stamp base of the source, moving the base to the tick first
+         *         if the offset does not fit into an {@code int}
+         */
+        private int stamp(int source, long tick) {
+            long offset = tick - stampBases[source];
+            if(offset != (int) offset) {
+                rebase(source, tick);
+                offset = 0;
+            }
+            return (int) offset;
+        }
+
+        /**
+         * Moves the stamp base of the source to the tick, which happens once in 2<sup>31</sup> ticks of the source at most.
+         * Only the thread ticking the source writes its stamps. A stamp more than 2<sup>31</sup> ticks before the tick
+         * is clamped to the earliest tick an offset reaches, which only a synapse deferring its decay that long notices.
+         */
+        private void rebase(int source, long tick) {
+            long base = stampBases[source];
+            for(int i = offsets[source], end = offsets[source + 1]; i < end; i++) {
+                decayedAt.put(i, clamp(base + decayedAt.get(i) - tick));
+                if(usedAt != null) {
+                    usedAt.put(i, clamp(base + usedAt.get(i) - tick));
+                }
+            }
+            stampBases[source] = tick;
+        }
+
+        private static int clamp(long offset) {
+            return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, offset));
+        }
+
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+
+        /**
+         * @param decayedAt tick up to which the weight has decayed
+         */
+        void visit(int target, SynapseType synapseType, double weight, int delay, long decayedAt);
+
+    }
+
+    private final int size;
+
+    private volatile Rows rows;
+
+    private final AtomicInteger liveSynapses = new AtomicInteger();
+    private final AtomicInteger removedSynapses = new AtomicInteger();
+    private final AtomicLong prunedSynapses = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+
+    private int[] pendingEntries = new int[MINIMUM_MERGE_THRESHOLD];
+    private double[] pendingWeights = new double[MINIMUM_MERGE_THRESHOLD];
+    private double[] pendingShifts = new double[MINIMUM_MERGE_THRESHOLD];
+    private byte[] pendingDelays = new byte[MINIMUM_MERGE_THRESHOLD];
+    private int[] pendingNext = new int[MINIMUM_MERGE_THRESHOLD];
+    private final int[] pendingHead;
+    private final int[] pendingCount;
+    private volatile int pendingSize;
+    private boolean delayed;
+    private boolean tracksUse;
+    private Network.SynapseStorage storage = Network.SynapseStorage.HEAP;
+
+    private long lastMerge = System.nanoTime();
+
+    private boolean mergingByTicks;
+    private int ticksSinceMerge;
+
+    private final AtomicLong excitatoryShift = new AtomicLong(Double.doubleToRawLongBits(0));
+    private final AtomicLong inhibitoryShift = new AtomicLong(Double.doubleToRawLongBits(0));
+    private final AtomicDoubleArray excitatorySourceShift;
+    private final AtomicDoubleArray inhibitorySourceShift;
+    private final double[] excitatoryFolded;
+    private final double[] inhibitoryFolded;
+
+    private volatile IntToLongFunction clock = source -> 0;
+    private volatile IntConsumer removalListener = source -> {};
+
+    SynapseTable(int size) {
+        this.size = size;
+        this.rows = new Rows(new int[size + 1], IntBuffer.allocate(0), Weights.allocate(Network.Precision.FLOAT64, Network.SynapseStorage.HEAP, 0),
+                IntBuffer.allocate(0), null, null, new long[size]);
+
+        this.pendingHead = new int[size];
+        this.pendingCount = new int[size];
+        Arrays.fill(pendingHead, -1);
+
+        this.excitatorySourceShift = new AtomicDoubleArray(size);
+        this.inhibitorySourceShift = new AtomicDoubleArray(size);
+        this.excitatoryFolded = new double[size];
+        this.inhibitoryFolded = new double[size];
+    }
+
+    static int encode(int target, SynapseType synapseType) {
+        return synapseType == SynapseType.EXCITATORY ? target : ~target;
+    }
+
+    static int target(int entry) {
+        return entry >= 0 ? entry : ~entry;
+    }
+
+    static SynapseType synapseType(int entry) {
+        return entry >= 0 ? SynapseType.EXCITATORY : SynapseType.INHIBITORY;
+    }
+
+    Rows rows() {
+        return rows;
+    }
+
+    /**
+     * Stores the weights in the given precision and every synapse in the given storage from now on, moving the synapses
+     * stored so far. Has to be called before ticking.
+     */
+    synchronized void store(Network.Precision precision, Network.SynapseStorage storage) {
+        this.storage = storage;
+        Rows rows = this.rows;
+        IntBuffer targets = SynapseBuffers.ints(storage, rows.targets.capacity());
+        IntBuffer decayedAt = SynapseBuffers.ints(storage, rows.decayedAt.capacity());
+        ByteBuffer delays = rows.delays == null ? null : SynapseBuffers.bytes(storage, rows.delays.capacity());
+        IntBuffer usedAt = rows.usedAt == null ? null : SynapseBuffers.ints(storage, rows.usedAt.capacity());
+        for(int i = 0; i < targets.capacity(); i++) {
+            targets.put(i, rows.targets.get(i));
+            decayedAt.put(i, rows.decayedAt.get(i));
+            if(delays != null) {
+                delays.put(i, rows.delays.get(i));
+            }
+            if(usedAt != null) {
+                usedAt.put(i, rows.usedAt.get(i));
+            }
+        }
+        this.rows = new Rows(rows.offsets, targets, rows.weights.convert(precision, storage), decayedAt, delays, usedAt, rows.stampBases);
+    }
+
+    /**
+     * Stores the tick every synapse last transmitted at from now on, starting from the current tick of its source
+     * for the synapses stored so far. Has to be called before ticking.
+     */
+    synchronized void trackUse() {
+        if(tracksUse) {
+            return;
+        }
+        this.tracksUse = true;
+        Rows rows = this.rows;
+        Rows tracking = new Rows(rows.offsets, rows.targets, rows.weights, rows.decayedAt, rows.delays,
+                SynapseBuffers.ints(storage, rows.targets.capacity()), rows.stampBases);
+        for(int source = 0; source < size; source++) {
+            long now = now(source);
+            for(int i = rows.offsets[source], end = rows.offsets[source + 1]; i < end; i++) {
+                tracking.usedAt(source, i, now);
+            }
+        }
+        this.rows = tracking;
+    }
+
+    /**
+     * @return the number of bytes taken by the per-synapse columns outside of the heap
+     */
+    long getOffHeapBytes() {
+        if(storage != Network.SynapseStorage.OFF_HEAP) {
+            return 0;
+        }
+        Rows rows = this.rows;
+        return bytes(rows, rows.targets.capacity());
+    }
+
+    /**
+     * @return the number of bytes the given number of synapses take in the per-synapse columns of the rows
+     */
+    private static long bytes(Rows rows, long synapses) {
+        long bytes = Integer.BYTES + Integer.BYTES + (rows.weights.precision() == Network.Precision.FLOAT64 ? Double.BYTES : Float.BYTES);
+        if(rows.delays != null) {
+            bytes += Byte.BYTES;
+        }
+        if(rows.usedAt != null) {
+            bytes += Integer.BYTES;
+        }
+        return bytes * synapses;
+    }
+
+    /**
+     * @return the number of bytes of removed synapses dropped from the storage by merges so far
+     */
+    long getReclaimedBytes() {
+        return reclaimedBytes.get();
+    }
+
+    /**
+     * @return the number of synapses pruned so far
+     */
+    long getPrunedSynapses() {
+        return prunedSynapses.get();
+    }
+
+    /**
+     * Sets the clock giving the current tick of the thread ticking each source.
+     */
+    void clock(IntToLongFunction clock) {
+        this.clock = clock;
+    }
+
+    long now(int source) {
+        return clock.applyAsLong(source);
+    }
+
+    int size() {
+        return liveSynapses.get();
+    }
+
+    /**
+     * Adds to the weight of every synapse of the type, in constant time.
+     */
+    void shift(SynapseType synapseType, double delta) {
+        AtomicLong shift = synapseType == SynapseType.EXCITATORY ? excitatoryShift : inhibitoryShift;
+        long current;
+        do {
+            current = shift.get();
+        } while(!shift.compareAndSet(current, Double.doubleToRawLongBits(Double.longBitsToDouble(current) + delta)));
+    }
+
+    /**
+     * Adds to the weight of every synapse of the type of the source, in constant time.
+     */
+    void shift(int source, SynapseType synapseType, double delta) {
+        (synapseType == SynapseType.EXCITATORY ? excitatorySourceShift : inhibitorySourceShift).addAndGet(source, delta);
+    }
+
+    private double shift(boolean excitatory) {
+        return Double.longBitsToDouble((excitatory ? excitatoryShift : inhibitoryShift).get());
+    }
+
+    private double shift(int source, boolean excitatory) {
+        return shift(excitatory) + (excitatory ? excitatorySourceShift : inhibitorySourceShift).get(source);
+    }
+
+    /**
+     * @return what the weights of the source lack of the shift of the type
+     */
+    double unfolded(int source, boolean excitatory) {
+        return shift(source, excitatory) - (excitatory ? excitatoryFolded[source] : inhibitoryFolded[source]);
+    }
+
+    /**
+     * Folds the shifts into the weights of the source. Only the thread ticking the source folds them.
+     */
+    void fold(int source) {
+        double excitatory = shift(source, true);
+        double inhibitory = shift(source, false);
+        double excitatoryDelta = excitatory - excitatoryFolded[source];
+        double inhibitoryDelta = inhibitory - inhibitoryFolded[source];
+        if(excitatoryDelta == 0 && inhibitoryDelta == 0) {
+            return;
+        }
+        Rows rows = this.rows;
+        for(int i = rows.offsets[source], end = rows.offsets[source + 1]; i < end; i++) {
+            int entry = rows.targets.get(i);
+            if(entry != REMOVED) {
+                rows.weights.add(i, entry >= 0 ? excitatoryDelta : inhibitoryDelta);
+            }
+        }
+        excitatoryFolded[source] = excitatory;
+        inhibitoryFolded[source] = inhibitory;
+    }
+
+    /**
+     * Appends a synapse unless the source already has one to the same target.
+     *
+     * @return whether the synapse has been appended
+     */
+    synchronized boolean add(int source, int target, SynapseType synapseType, double weight, int delay) {
+        Rows rows = this.rows;
+        for(int i = rows.offsets[source], end = rows.offsets[source + 1]; i < end; i++) {
+            int entry = rows.targets.get(i);
+            if(entry != REMOVED && target(entry) == target) {
+                return false;
+            }
+        }
+        for(int i = pendingHead[source]; i != -1; i = pendingNext[i]) {
+            if(target(pendingEntries[i]) == target) {
+                return false;
+            }
+        }
+
+        int index = pendingSize;
+        if(index == pendingEntries.length) {
+            int capacity = index * 2;
+            pendingEntries = Arrays.copyOf(pendingEntries, capacity);
+            pendingWeights = Arrays.copyOf(pendingWeights, capacity);
+            pendingShifts = Arrays.copyOf(pendingShifts, capacity);
+            pendingDelays = Arrays.copyOf(pendingDelays, capacity);
+            pendingNext = Arrays.copyOf(pendingNext, capacity);
+        }
+        pendingEntries[index] = encode(target, synapseType);
+        pendingWeights[index] = weight;
+        pendingShifts[index] = shift(source, synapseType == SynapseType.EXCITATORY);
+        pendingDelays[index] = (byte) Math.min(Math.max(delay, 0), MAXIMUM_DELAY);
+        delayed |= delay > 0;
+        pendingNext[index] = pendingHead[source];
+        pendingHead[source] = index;
+        pendingCount[source]++;
+
+        pendingSize = index + 1;
+        liveSynapses.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Marks the synapse at the given position of the published rows as removed.
+     * Only the tick thread that fires the source neuron removes its synapses.
+     */
+    void remove(int source, Rows rows, int index) {
+        rows.targets.put(index, REMOVED);
+        liveSynapses.decrementAndGet();
+        removedSynapses.incrementAndGet();
+        removalListener.accept(source);
+    }
+
+    /**
+     * Same as {@link #remove(int, Rows, int)}, counted as pruned.
+     */
+    void prune(int source, Rows rows, int index) {
+        remove(source, rows, index);
+        prunedSynapses.incrementAndGet();
+    }
+
+    /**
+     * Sets the listener called with the source of every removed synapse, on the thread removing it.
+     */
+    void removalListener(IntConsumer listener) {
+        this.removalListener = listener;
+    }
+
+    /**
+     * @return the number of live synapses of the source, including those not merged yet
+     */
+    int count(int source) {
+        Rows rows = this.rows;
+        int count = 0;
+        for(int i = rows.offsets[source], end = rows.offsets[source + 1]; i < end; i++) {
+            if(rows.targets.get(i) != REMOVED) {
+                count++;
+            }
+        }
+        return count + pendingCount[source];
+    }
+
+    /**
+     * Visits the live synapses of the source, including those not merged yet, with the shifts not folded yet.
+     */
+    synchronized void forEach(int source, Visitor visitor) {
+        Rows rows = this.rows;
+        double excitatory = unfolded(source, true);
+        double inhibitory = unfolded(source, false);
+        for(int i = rows.offsets[source], end = rows.offsets[source + 1]; i < end; i++) {
+            int entry = rows.targets.get(i);
+            if(entry != REMOVED) {
+                double weight = rows.weights.get(i) + (entry >= 0 ? excitatory : inhibitory);
+                visitor.visit(target(entry), synapseType(entry), weight, rows.delay(i), rows.decayedAt(source, i));
+            }
+        }
+        long now = now(source);
+        for(int i = pendingHead[source]; i != -1; i = pendingNext[i]) {
+            int entry = pendingEntries[i];
+            double weight = pendingWeights[i] + shift(source, entry >= 0) - pendingShifts[i];
+            visitor.visit(target(entry), synapseType(entry), weight, pendingDelays[i] & MAXIMUM_DELAY, now);
+        }
+    }
+
+    /**
+     * Merges the append buffer if {@link #isMergeDue()}. Called by a single tick thread, while no other thread writes
+     * to the published rows.
+     */
+    void mergeIfDue() {
+        if(isMergeDue()) {
+            merge();
+        }
+    }
+
+    /**
+     * Counts a tick, and tells whether the append buffer has grown large enough relative to the table, enough synapses
+     * have been removed, or appended synapses have waited for a while. Called by a single tick thread.
+     */
+    boolean isMergeDue() {
+        ticksSinceMerge++;
+        int pending = pendingSize;
+        int removed = removedSynapses.get();
+        if(pending == 0 && removed == 0) {
+            return false;
+        }
+        int threshold = Math.max(MINIMUM_MERGE_THRESHOLD, liveSynapses.get() / 16);
+        return pending >= threshold || removed >= threshold || waitedForMerge();
+    }
+
+    /**
+     * Measures the wait of appended synapses in ticks rather than in time, so the tick a synapse becomes
+     * visible at does not depend on how fast the network ticks.
+     */
+    void mergeByTicks() {
+        this.mergingByTicks = true;
+    }
+
+    private boolean waitedForMerge() {
+        if(mergingByTicks) {
+            return ticksSinceMerge >= MERGE_INTERVAL_TICKS;
+        }
+        return System.nanoTime() - lastMerge >= MERGE_INTERVAL_NANOS;
+    }
+
+    /**
+     * Copies the live synapses of the published rows and the appended synapses into new rows and publishes them.
+     * Every change written to the old rows after they were copied is lost, so no tick thread may write
+     * to the rows while they are merged.
+     */
+    synchronized void merge() {
+        Rows old = this.rows;
+        int[] offsets = new int[size + 1];
+
+        int total = 0;
+        int dropped = 0;
+        for(int source = 0; source < size; source++) {
+            offsets[source] = total;
+            for(int i = old.offsets[source], end = old.offsets[source + 1]; i < end; i++) {
+                if(old.targets.get(i) != REMOVED) {
+                    total++;
+                } else {
+                    dropped++;
+                }
+            }
+            total += pendingCount[source];
+        }
+        offsets[size] = total;
+
+        IntBuffer targets = SynapseBuffers.ints(storage, total);
+        Weights weights = Weights.allocate(old.weights.precision(), storage, total);
+        IntBuffer decayedAt = SynapseBuffers.ints(storage, total);
+        ByteBuffer delays = delayed ? SynapseBuffers.bytes(storage, total) : null;
+        IntBuffer usedAt = tracksUse ? SynapseBuffers.ints(storage, total) : null;
+        // Stamps are copied as offsets, so the merged rows keep the stamp bases.
+        Rows rows = new Rows(offsets, targets, weights, decayedAt, delays, usedAt, old.stampBases);
+        for(int source = 0; source < size; source++) {
+            int cursor = offsets[source];
+            for(int i = old.offsets[source], end = old.offsets[source + 1]; i < end; i++) {
+                if(old.targets.get(i) != REMOVED) {
+                    targets.put(cursor, old.targets.get(i));
+                    weights.set(cursor, old.weights.get(i));
+                    decayedAt.put(cursor, old.decayedAt.get(i));
+                    if(delays != null && old.delays != null) {
+                        delays.put(cursor, old.delays.get(i));
+                    }
+                    if(usedAt != null) {
+                        usedAt.put(cursor, old.usedAt.get(i));
+                    }
+                    cursor++;
+                }
+            }
+            long now = pendingHead[source] == -1 ? 0 : now(source);
+            for(int i = pendingHead[source]; i != -1; i = pendingNext[i]) {
+                int entry = pendingEntries[i];
+                double folded = entry >= 0 ? excitatoryFolded[source] : inhibitoryFolded[source];
+                targets.put(cursor, entry);
+                // Relative to the shifts folded into the source, so folding later adds the shifts since the append.
+                weights.set(cursor, pendingWeights[i] + folded - pendingShifts[i]);
+                rows.decayedAt(source, cursor, now);
+                if(delays != null) {
+                    delays.put(cursor, pendingDelays[i]);
+                }
+                if(usedAt != null) {
+                    rows.usedAt(source, cursor, now);
+                }
+                cursor++;
+            }
+            pendingHead[source] = -1;
+            pendingCount[source] = 0;
+        }
+
+        this.rows = rows;
+        this.reclaimedBytes.addAndGet(bytes(old, dropped));
+        this.pendingSize = 0;
+        this.liveSynapses.set(total);
+        this.removedSynapses.set(0);
+        this.lastMerge = System.nanoTime();
+        this.ticksSinceMerge = 0;
+    }
+}
@@ -0,0 +1,166 @@
+package av.is.aegis;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Grows new synapses from the marked neurons that have fewer synapses than they may have, a limited number per tick.
+ *
+ * The unsaturated neurons are kept in a bitset: a neuron is added once it is marked and removed once it is saturated,
+ * and added again when one of its synapses is removed. Each growth picks an unsaturated neuron uniformly at random,
+ * so growing costs nothing once every marked neuron is saturated. Growing is run by a single thread at a time, while neurons
+ * may be added to the bitset from any thread.
+ */
+class Synaptogenesis {
+
+    /**
+     * Random slots tried before the unsaturated neurons are counted through, which is cheaper while many are unsaturated.
+     */
+    private static final int SAMPLES = 4;
+
+    /**
+     * Tries to grow a single synapse from the neuron at the slot.
+     */
+    @FunctionalInterface
+    interface Grower {
+
+        /**
+         * @return whether a synapse has been grown, which fails if the chosen target is connected already
+         */
+        boolean grow(int slot, SplittableRandom random);
+
+    }
+
+    private final SynapseTable synapses;
+    private final int size;
+    private final IntUnaryOperator capacity;
+    private final Grower grower;
+    private final SplittableRandom random;
+
+    private final AtomicLongArray unsaturated;
+    private final AtomicInteger unsaturatedCount = new AtomicInteger();
+
+    private final AtomicLong grown = new AtomicLong();
+
+    /**
+     * @param capacity the number of synapses the neuron at a slot grows up to
+     */
+    Synaptogenesis(SynapseTable synapses, int size, IntUnaryOperator capacity, Grower grower, SplittableRandom random) {
+        this.synapses = synapses;
+        this.size = size;
+        this.capacity = capacity;
+        this.grower = grower;
+        this.random = random;
+        this.unsaturated = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    /**
+     * Lets the neuron at the slot grow synapses if it has fewer than it may have.
+     */
+    void unsaturate(int slot) {
+        if(isSaturated(slot)) {
+            return;
+        }
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        long current;
+        do {
+            current = unsaturated.get(word);
+            if((current & bit) != 0) {
+                return;
+            }
+        } while(!unsaturated.compareAndSet(word, current, current | bit));
+        unsaturatedCount.incrementAndGet();
+    }
+
+    private boolean isSaturated(int slot) {
+        return synapses.count(slot) >= capacity.applyAsInt(slot);
+    }
+
+    private void saturate(int slot) {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        long current;
+        do {
+            current = unsaturated.get(word);
+            if((current & bit) == 0) {
+                return;
+            }
+        } while(!unsaturated.compareAndSet(word, current, current & ~bit));
+        unsaturatedCount.decrementAndGet();
+    }
+
+    /**
+     * Tries to grow a synapse the given number of times.
+     *
+     * @return the number of grown synapses
+     */
+    int grow(int budget) {
+        int attempts = 0;
+        int count = 0;
+        while(attempts < budget && unsaturatedCount.get() > 0) {
+            int slot = pick();
+            if(slot == -1) {
+                break;
+            }
+            if(isSaturated(slot)) {
+                saturate(slot);
+                continue;
+            }
+            attempts++;
+            if(grower.grow(slot, random)) {
+                count++;
+            }
+            if(isSaturated(slot)) {
+                saturate(slot);
+            }
+        }
+        if(count > 0) {
+            grown.addAndGet(count);
+        }
+        return count;
+    }
+
+    /**
+     * Picks every unsaturated slot with the same chance: a random slot is kept if it is unsaturated, and after a few
+     * saturated ones a random rank among the unsaturated slots is looked up instead.
+     *
+     * @return a random unsaturated slot, or -1 if there is none
+     */
+    private int pick() {
+        for(int i = 0; i < SAMPLES; i++) {
+            int slot = random.nextInt(size);
+            if((unsaturated.get(slot >>> 6) & (1L << slot)) != 0) {
+                return slot;
+            }
+        }
+        int count = unsaturatedCount.get();
+        if(count == 0) {
+            return -1;
+        }
+        int rank = random.nextInt(count);
+        for(int word = 0; word < unsaturated.length(); word++) {
+            long bits = unsaturated.get(word);
+            int bitCount = Long.bitCount(bits);
+            if(rank < bitCount) {
+                for(; rank > 0; rank--) {
+                    bits &= bits - 1;
+                }
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            rank -= bitCount;
+        }
+        return -1;
+    }
+
+    int getUnsaturatedNeurons() {
+        return unsaturatedCount.get();
+    }
+
+    long getGrownSynapses() {
+        return grown.get();
+    }
+}
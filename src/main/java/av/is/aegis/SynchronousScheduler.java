@@ -0,0 +1,216 @@
+package av.is.aegis;
+
+import com.google.common.util.concurrent.AtomicDoubleArray;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock driven scheduler where every tick worker advances in lock step.
+ *
+ * Each time step has two phases separated by a {@link TickBarrier}:
+ * <ol>
+ *     <li>every worker ticks its own slots against the current potentials and writes transmitted
+ *     stimulation into its private next buffer,</li>
+ *     <li>every worker folds the next buffers of all workers into the potentials of its own slots and clears them.</li>
+ * </ol>
+ * A potential is only ever written by a single worker per phase, so no compare-and-swap is needed.
+ * Stimulation injected from outside is folded by the ticking worker right before it ticks the slot,
+ * so stimulation injected by the tick listener, which runs at the end of the second phase,
+ * reaches the next tick no matter how far the other workers are.
+ *
+ * The slots a worker ticks are divided by a {@link TickBalancer}, which may move them to another worker between
+ * time steps. Every worker folds a fixed range of the slots.
+ *
+ * With {@link Network.Ticking#BLOCK} the first phase ticks blocks of {@link TickBalancer#CHUNK} slots at once,
+ * which is possible because transmitted stimulation only reaches the potentials in the second phase.
+ *
+ * Synapses are pruned by the first worker in the second phase, while no worker ticks.
+ *
+ * With a single worker, the scheduler may be run by a {@link NetworkHost} instead of a thread of its own.
+ */
+class SynchronousScheduler extends TickScheduler implements Hostable {
+
+    private final TickBarrier barrier;
+    private final TickBalancer balancer;
+    private final double[][] next;
+    private final AtomicDoubleArray injected;
+    private final SynapsePruning pruning;
+
+    /**
+     * The trace of every worker, rewarded by the first worker between time steps, as the synapses a worker
+     * transmitted through may be ticked by another worker by then.
+     */
+    private final EligibilityTrace[] traces;
+
+    private final AtomicLong ticks = new AtomicLong();
+
+    /**
+     * The parameters of the current tick, only replaced by the first worker between time steps.
+     */
+    private Tuning tuning;
+
+    /**
+     * The only worker while the scheduler is run by a {@link NetworkHost}.
+     */
+    private Worker hosted;
+
+    SynchronousScheduler(NeuronState state, SynapseTable synapses, Network.Configuration configuration, int threads) {
+        super(state, synapses, configuration, threads);
+        this.barrier = new TickBarrier(threads);
+        this.balancer = new TickBalancer(state, synapses, configuration, threads);
+        this.traces = new EligibilityTrace[threads];
+        this.next = new double[threads][state.size()];
+        this.injected = new AtomicDoubleArray(state.size());
+        this.pruning = pruning(0, state.size());
+        synapses.clock(slot -> ticks.get());
+        this.tuning = configuration.tuning();
+    }
+
+    @Override
+    void start() {
+        for(int i = 0; i < threads; i++) {
+            Worker worker = new Worker(i);
+            thread("Network Ticking - #" + i).runnable(() -> {
+                while(true) {
+                    worker.step();
+                    if(worker.index == 0) {
+                        delay(tuning);
+                    }
+                    barrier.await();
+                }
+            }).start();
+        }
+    }
+
+    /**
+     * Ticks every slot as a single worker, so the scheduler is only hosted with a single tick thread.
+     */
+    @Override
+    public int run(int ticks) {
+        if(hosted == null) {
+            hosted = new Worker(0);
+        }
+        for(int i = 0; i < ticks; i++) {
+            hosted.step();
+        }
+        return ticks;
+    }
+
+    /**
+     * Ticks the slots of a single worker, one time step per {@link #step()}.
+     */
+    private class Worker {
+
+        private final int index;
+        private final SpikeSink sink;
+        private final EligibilityTrace trace;
+        private final int[] fired;
+        private final int foldStart;
+        private final int foldEnd;
+        private long now;
+
+        Worker(int index) {
+            this.index = index;
+            double[] buffer = next[index];
+            this.sink = (target, stimulation, delay) -> {
+                if(state.isRelay(target)) {
+                    state.neuron(target).recept(stimulation);
+                } else {
+                    buffer[target] += stimulation;
+                }
+            };
+            this.trace = createTrace();
+            traces[index] = trace;
+            this.fired = configuration.ticking == Network.Ticking.BLOCK ? new int[TickBalancer.CHUNK] : null;
+            this.foldStart = balancer.from(index);
+            this.foldEnd = balancer.to(index);
+        }
+
+        /**
+         * Runs both phases of the next time step, up to the barrier ending it.
+         */
+        void step() {
+            now++;
+            Tuning tuning = SynchronousScheduler.this.tuning;
+            long started = System.nanoTime();
+            long transmitted = 0;
+            for(int from = balancer.from(index), end = balancer.to(index); from < end; from += TickBalancer.CHUNK) {
+                int to = Math.min(end, from + TickBalancer.CHUNK);
+                int chunkTransmitted = 0;
+                if(fired == null) {
+                    for(int slot = from; slot < to; slot++) {
+                        inject(slot);
+                        if(state.isMarked(slot)) {
+                            chunkTransmitted += tick(slot, sink, trace, now, tuning);
+                        }
+                    }
+                } else {
+                    for(int slot = from; slot < to; slot++) {
+                        inject(slot);
+                    }
+                    chunkTransmitted = tick(from, to, fired, sink, trace, now, tuning);
+                }
+                if(balancer.isBalancing()) {
+                    balancer.measure(from, to, chunkTransmitted, tuning);
+                }
+                transmitted += chunkTransmitted;
+            }
+            if(transmitted > 0) {
+                SynchronousScheduler.this.transmitted.addAndGet(transmitted);
+            }
+            busy(index, System.nanoTime() - started);
+            barrier.await();
+
+            for(int slot = foldStart; slot < foldEnd; slot++) {
+                double stimulation = 0;
+                for(double[] other : next) {
+                    stimulation += other[slot];
+                    other[slot] = 0;
+                }
+                if(stimulation != 0) {
+                    state.integrate(slot, stimulation);
+                }
+            }
+            if(index == 0) {
+                for(EligibilityTrace trace : traces) {
+                    applyRewards(trace, now + 1);
+                }
+                if(balancer.isBalancing()) {
+                    balancer.balance();
+                }
+                pruning.sweep(tuning);
+                ticked(ticks.incrementAndGet());
+                synapses.mergeIfDue();
+                SynchronousScheduler.this.tuning = settle(0, state.size(), now, tuning, configuration.tuning());
+            }
+        }
+    }
+
+    /**
+     * Integrates the stimulation injected into the slot since its last tick.
+     */
+    private void inject(int slot) {
+        if(injected.get(slot) != 0) {
+            state.integrate(slot, injected.getAndSet(slot, 0));
+        }
+    }
+
+    @Override
+    void inject(int slot, double stimulation) {
+        if(state.isRelay(slot)) {
+            state.neuron(slot).recept(stimulation);
+        } else {
+            injected.addAndGet(slot, stimulation);
+        }
+    }
+
+    @Override
+    int getAwaitingStimulations() {
+        return 0;
+    }
+
+    @Override
+    long getTicks() {
+        return ticks.get();
+    }
+}
@@ -1,12 +1,7 @@
 package av.is.aegis;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 public class ThreadBuilder {
 
-    private static final AtomicInteger WORKING_THREADS = new AtomicInteger();
-    private static final AtomicInteger NON_COUNTABLE_THREADS = new AtomicInteger();
-
     private ThreadBuilder() {
     }
 
@@ -14,22 +9,10 @@ public class ThreadBuilder {
         return new ThreadBuilder();
     }
 
-    static void incrementThreadsForStatistic(int threads) {
-        WORKING_THREADS.addAndGet(threads);
-        NON_COUNTABLE_THREADS.addAndGet(threads);
-    }
-
-    static int getThreads() {
-        return WORKING_THREADS.get();
-    }
-
-    static int getNonCountableThreads() {
-        return NON_COUNTABLE_THREADS.get();
-    }
-
     private Runnable runnable;
     private String name;
     private boolean daemon = false;
+    private ThreadStatistic statistic;
 
     public ThreadBuilder runnable(Runnable runnable) {
         this.runnable = runnable;
@@ -46,10 +29,21 @@ public class ThreadBuilder {
         return this;
     }
 
+    /**
+     * Counts the thread in the statistic of its network.
+     */
+    ThreadBuilder statistic(ThreadStatistic statistic) {
+        this.statistic = statistic;
+        return this;
+    }
+
     public Thread build() {
+        ThreadStatistic statistic = this.statistic;
         Thread thread = new Thread(() -> {
             runnable.run();
-            WORKING_THREADS.decrementAndGet();
+            if(statistic != null) {
+                statistic.finished();
+            }
         });
         if(name != null) {
             thread.setName(name);
@@ -62,7 +56,9 @@ public class ThreadBuilder {
 
     public void start() {
         build().start();
-        WORKING_THREADS.incrementAndGet();
+        if(statistic != null) {
+            statistic.started();
+        }
     }
 
 }
@@ -0,0 +1,36 @@
+package av.is.aegis;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the threads started for a single network, so every network reports its own threads.
+ */
+class ThreadStatistic {
+
+    private final AtomicInteger workingThreads = new AtomicInteger();
+    private final AtomicInteger nonCountableThreads = new AtomicInteger();
+
+    /**
+     * Counts threads started outside of {@link ThreadBuilder}, such as those of a thread pool.
+     */
+    void increment(int threads) {
+        workingThreads.addAndGet(threads);
+        nonCountableThreads.addAndGet(threads);
+    }
+
+    void started() {
+        workingThreads.incrementAndGet();
+    }
+
+    void finished() {
+        workingThreads.decrementAndGet();
+    }
+
+    int getThreads() {
+        return workingThreads.get();
+    }
+
+    int getNonCountableThreads() {
+        return nonCountableThreads.get();
+    }
+}
@@ -0,0 +1,171 @@
+package av.is.aegis;
+
+import java.util.Arrays;
+
+/**
+ * Divides the slots of a {@link SynchronousScheduler} or a {@link FreeRunningScheduler} among its tick workers by the work
+ * they caused recently, so the worker ticking the firing region of the network does not hold up every other worker.
+ *
+ * The slots are cut into chunks of {@link #CHUNK} slots, and every worker ticks a range of consecutive chunks
+ * of about the same cost. The cost of a chunk is counted rather than timed, so a seeded network is divided the same way
+ * on every run: a unit for every slot and every marked slot, for every synapse of a marked slot while synapses decay,
+ * and for every stimulation the chunk transmitted, halved with every division.
+ *
+ * Synchronous workers measure whole chunks and are divided anew at the end of every tick. Free-running workers only
+ * visit active slots, so they {@link #count(int, int, Tuning) count} every slot they tick and are divided every few
+ * passes by the cost per pass of their chunks, so every worker passes its range in about the same time.
+ *
+ * Without balancing, every worker ticks an equal range of the slots.
+ */
+class TickBalancer {
+
+    static final int CHUNK = 128;
+
+    /**
+     * Costs per pass are counted in 1/1024ths of a unit, as most chunks of a free-running range cost less than a unit
+     * per pass.
+     */
+    private static final int PASS_SCALE = 1 << 10;
+
+    private final NeuronState state;
+    private final SynapseTable synapses;
+    private final int workers;
+    private final int chunks;
+    private final boolean balancing;
+
+    /**
+     * The first slot of the range of every worker, followed by the number of slots.
+     */
+    private final int[] bounds;
+
+    /**
+     * Cost of every chunk, only written by the worker ticking the chunk while the range of the worker is ticked.
+     */
+    private final long[] costs;
+
+    /**
+     * Cost of every chunk counted by a free-running worker since the last division, and the passes of every worker
+     * since then. Only written by the worker ticking the chunk while it writes to the synapse rows.
+     */
+    private final long[] counts;
+    private final long[] passes;
+
+    TickBalancer(NeuronState state, SynapseTable synapses, Network.Configuration configuration, int workers) {
+        this.state = state;
+        this.synapses = synapses;
+        this.workers = workers;
+        this.chunks = (state.size() + CHUNK - 1) / CHUNK;
+        this.balancing = configuration.tickDivision == Network.TickDivision.BALANCED && workers > 1;
+        this.bounds = new int[workers + 1];
+        this.costs = new long[chunks];
+        this.counts = new long[chunks];
+        this.passes = new long[workers];
+
+        int piece = state.size() / workers;
+        for(int worker = 0; worker < workers; worker++) {
+            bounds[worker] = balancing ? (int) ((long) chunks * worker / workers) * CHUNK : worker * piece;
+        }
+        bounds[workers] = state.size();
+    }
+
+    boolean isBalancing() {
+        return balancing;
+    }
+
+    int from(int worker) {
+        return bounds[worker];
+    }
+
+    int to(int worker) {
+        return bounds[worker + 1];
+    }
+
+    /**
+     * Counts the cost of the chunk starting at the slot, right after it was ticked.
+     */
+    void measure(int from, int to, int transmitted, Tuning tuning) {
+        long cost = to - from + transmitted;
+        boolean decaying = tuning.synapseDecaying;
+        int[] offsets = synapses.rows().offsets;
+        for(int slot = from; slot < to; slot++) {
+            if(state.isMarked(slot)) {
+                cost += decaying ? 1 + offsets[slot + 1] - offsets[slot] : 1;
+            }
+        }
+        int chunk = from / CHUNK;
+        costs[chunk] = (costs[chunk] + cost) >>> 1;
+    }
+
+    /**
+     * Counts the cost of a slot a free-running worker just ticked.
+     */
+    void count(int slot, int transmitted, Tuning tuning) {
+        long cost = 1 + transmitted;
+        if(state.isMarked(slot)) {
+            int[] offsets = synapses.rows().offsets;
+            cost += tuning.synapseDecaying ? 1 + offsets[slot + 1] - offsets[slot] : 1;
+        }
+        counts[slot / CHUNK] += cost;
+    }
+
+    /**
+     * Counts a pass of a free-running worker over its range.
+     */
+    void passed(int worker) {
+        passes[worker]++;
+    }
+
+    /**
+     * Divides the chunks among the free-running workers by their costs per pass since the last division. Every worker
+     * takes an equal share of the cost the workers before it left, and a chunk at least, so one expensive chunk
+     * does not leave the workers before it without anything to tick. Called while no worker writes to the synapse rows.
+     *
+     * @return whether any chunk changed its worker
+     */
+    boolean rebalance() {
+        long total = 0;
+        for(int worker = 0; worker < workers; worker++) {
+            long passed = Math.max(1, passes[worker]);
+            passes[worker] = 0;
+            for(int chunk = from(worker) / CHUNK, end = (to(worker) + CHUNK - 1) / CHUNK; chunk < end; chunk++) {
+                costs[chunk] = (costs[chunk] + counts[chunk] * PASS_SCALE / passed) >>> 1;
+                counts[chunk] = 0;
+                total += costs[chunk];
+            }
+        }
+        if(total == 0 || chunks < workers) {
+            return false;
+        }
+        int[] previous = bounds.clone();
+        int chunk = 0;
+        long sum = 0;
+        for(int worker = 0; worker < workers - 1; worker++) {
+            long target = sum + (total - sum) / (workers - worker);
+            int last = chunks - (workers - worker - 1);
+            do {
+                sum += costs[chunk++];
+            } while(chunk < last && sum + costs[chunk] / 2 < target);
+            bounds[worker + 1] = chunk * CHUNK;
+        }
+        return !Arrays.equals(previous, bounds);
+    }
+
+    /**
+     * Divides the chunks among the workers by their costs. Called while no worker ticks.
+     */
+    void balance() {
+        long total = 0;
+        for(long cost : costs) {
+            total += cost;
+        }
+        int chunk = 0;
+        long sum = 0;
+        for(int worker = 1; worker < workers; worker++) {
+            long target = total * worker / workers;
+            while(chunk < chunks && sum + costs[chunk] / 2 < target) {
+                sum += costs[chunk++];
+            }
+            bounds[worker] = Math.min(state.size(), chunk * CHUNK);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package av.is.aegis;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reusable barrier for a fixed number of tick workers.
+ *
+ * Phases of a time step are short, so waiting workers spin first, then yield and only then park briefly,
+ * which keeps the hand-off between phases far cheaper than a lock based barrier.
+ */
+class TickBarrier {
+
+    private static final int SPINS = 1 << 10;
+    private static final int YIELDS = SPINS + (1 << 6);
+    private static final long PARK_NANOS = 50_000L;
+
+    private final int parties;
+    private final AtomicInteger arrived = new AtomicInteger();
+    private volatile int generation;
+
+    TickBarrier(int parties) {
+        this.parties = parties;
+    }
+
+    void await() {
+        int current = generation;
+        if(arrived.incrementAndGet() == parties) {
+            arrived.set(0);
+            generation = current + 1;
+            return;
+        }
+        int waited = 0;
+        while(generation == current) {
+            if(waited < SPINS) {
+                waited++;
+            } else if(waited < YIELDS) {
+                waited++;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package av.is.aegis;
+
+/**
+ * Per-neuron update of a tick applied to a block of consecutive slots at once, over the primitive arrays of
+ * {@link NeuronState}. Every slot is updated with branch-free arithmetic in a single pass, so a block is processed
+ * in vector lanes where the hardware allows it.
+ *
+ * The implementation is chosen by {@link VectorKernels#tickKernel()}.
+ */
+interface TickKernel {
+
+    /**
+     * Counts down the refractory duration of every slot in the range, stopping at zero, and collects the marked slots
+     * whose potential has reached their threshold. The potential of every other marked slot is decayed: the distance
+     * to the stable potential is halved, snapped to the stable potential once it falls below
+     * {@link ScalarTickKernel#SNAP_DISTANCE} and never goes below it. The potential of a collected slot is left
+     * to firing, which resets it to the stable potential.
+     *
+     * @param fired receives the collected slots in ascending order, has to hold {@code to - from} of them
+     * @return the number of slots written to {@code fired}
+     */
+    int tick(double[] potential, double[] threshold, int[] refractoryDuration, boolean[] marked, int from, int to, int[] fired);
+}
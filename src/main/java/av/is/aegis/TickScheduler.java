@@ -0,0 +1,364 @@
+package av.is.aegis;
+
+import com.google.common.util.concurrent.AtomicDouble;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Drives the ticks of a network and decides how stimulation reaches the neurons.
+ */
+abstract class TickScheduler {
+
+    final NeuronState state;
+    final SynapseTable synapses;
+    final Network.Configuration configuration;
+    final int threads;
+
+    static final int DEFAULT_QUEUE_CAPACITY = 1 << 14;
+
+    /**
+     * Upper bound of parking while no neuron is active, so housekeeping such as merging synapses still happens.
+     */
+    static final long IDLE_PARK_NANOS = 10_000_000L;
+
+    /**
+     * Longest wait for writing threads between two runs of the waiting task of {@link #mergeIfDue(Runnable)}.
+     */
+    private static final long MERGE_WAIT_NANOS = 100_000L;
+
+    final AtomicLong transmitted = new AtomicLong();
+    final AtomicLong dropped = new AtomicLong();
+    final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Time every tick thread spent ticking its neurons, without waiting for stimulation or other threads.
+     */
+    private final AtomicLongArray busyNanos;
+
+    /**
+     * Cumulative rewards per synapse type for {@link Network.Plasticity#ELIGIBILITY_TRACE}.
+     */
+    private final AtomicDouble excitatoryReward = new AtomicDouble();
+    private final AtomicDouble inhibitoryReward = new AtomicDouble();
+    private final double traceDecay;
+
+    /**
+     * Held shared by every tick thread writing to the published synapse rows and exclusively by the thread merging them,
+     * for the schedulers whose threads tick while another one merges.
+     */
+    private final ReentrantReadWriteLock rowsLock = new ReentrantReadWriteLock();
+
+    private LongConsumer tickListener = tick -> {};
+    private ThreadStatistic threadStatistic = new ThreadStatistic();
+
+    TickScheduler(NeuronState state, SynapseTable synapses, Network.Configuration configuration, int threads) {
+        this.state = state;
+        this.synapses = synapses;
+        this.configuration = configuration;
+        this.threads = threads;
+        this.busyNanos = new AtomicLongArray(threads);
+        this.traceDecay = traceDecay(configuration);
+    }
+
+    /**
+     * @return the factor the eligibility traces decay by per tick, or 0 if plasticity is not traced
+     * @throws IllegalArgumentException if the configured factor is not between 0 and 1
+     */
+    private static double traceDecay(Network.Configuration configuration) {
+        if(configuration.plasticity != Network.Plasticity.ELIGIBILITY_TRACE) {
+            return 0;
+        }
+        double decay = configuration.eligibilityTraceDecay == 0 ? EligibilityTrace.DEFAULT_DECAY : configuration.eligibilityTraceDecay;
+        if(!(decay > 0 && decay < 1)) {
+            throw new IllegalArgumentException("eligibilityTraceDecay has to be between 0 and 1, exclusive, but was " + decay + ".");
+        }
+        return decay;
+    }
+
+    abstract void start();
+
+    /**
+     * Sets the listener called at the end of every tick, before {@link #start()}. The synchronous and event driven
+     * schedulers call it while no neuron is ticked; the others call it once per pass of their first thread.
+     */
+    void tickListener(LongConsumer listener) {
+        this.tickListener = listener;
+    }
+
+    void ticked(long tick) {
+        tickListener.accept(tick);
+    }
+
+    /**
+     * Sets the statistic counting the threads of the scheduler, before {@link #start()}.
+     */
+    void threadStatistic(ThreadStatistic threadStatistic) {
+        this.threadStatistic = threadStatistic;
+    }
+
+    ThreadBuilder thread(String name) {
+        return ThreadBuilder.builder().name(name).statistic(threadStatistic);
+    }
+
+    ThreadStatistic threadStatistic() {
+        return threadStatistic;
+    }
+
+    /**
+     * Marks the calling tick thread as writing to the published synapse rows, by ticking, rewarding or pruning,
+     * until {@link #endWriting()}. Never held while the thread waits for stimulation.
+     */
+    void beginWriting() {
+        rowsLock.readLock().lock();
+    }
+
+    void endWriting() {
+        rowsLock.readLock().unlock();
+    }
+
+    /**
+     * Merges the synapses if due, once every other tick thread has ended writing to the published rows. Tick threads
+     * wanting to begin writing in the meantime wait for the merge. Called by a single tick thread while it does not write.
+     *
+     * @param waiting run while other threads still write, such as draining stimulation a writing thread waits for
+     */
+    void mergeIfDue(Runnable waiting) {
+        if(synapses.isMergeDue()) {
+            exclusively(synapses::merge, waiting);
+        }
+    }
+
+    /**
+     * Runs the task once every other tick thread has ended writing to the published rows, the same way as a merge.
+     * Called by a single tick thread while it does not write.
+     *
+     * @param waiting run while other threads still write
+     */
+    void exclusively(Runnable task, Runnable waiting) {
+        Lock lock = rowsLock.writeLock();
+        try {
+            while(!lock.tryLock(MERGE_WAIT_NANOS, TimeUnit.NANOSECONDS)) {
+                waiting.run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            task.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stimulates the neuron at the slot from outside of the network.
+     */
+    abstract void inject(int slot, double stimulation);
+
+    abstract int getAwaitingStimulations();
+
+    /**
+     * @return the number of completed ticks
+     */
+    abstract long getTicks();
+
+    long getTransmittedStimulations() {
+        return transmitted.get();
+    }
+
+    long getDroppedStimulations() {
+        return dropped.get();
+    }
+
+    long getCoalescedStimulations() {
+        return coalesced.get();
+    }
+
+    /**
+     * Adds to the time the tick thread spent ticking. Only called by the tick thread itself.
+     */
+    void busy(int thread, long nanos) {
+        busyNanos.lazySet(thread, busyNanos.get(thread) + nanos);
+    }
+
+    /**
+     * @return the time every tick thread spent ticking since the scheduler started
+     */
+    long[] getBusyNanos() {
+        long[] nanos = new long[threads];
+        for(int i = 0; i < threads; i++) {
+            nanos[i] = busyNanos.get(i);
+        }
+        return nanos;
+    }
+
+    /**
+     * @return the time the busiest tick thread spent ticking between the given times of {@link #getBusyNanos()},
+     *         over the mean time of every tick thread, or 1 if none ticked
+     */
+    static double imbalance(long[] from, long[] to) {
+        long maximum = 0;
+        long total = 0;
+        for(int i = 0; i < to.length; i++) {
+            long nanos = to[i] - from[i];
+            maximum = Math.max(maximum, nanos);
+            total += nanos;
+        }
+        return total == 0 ? 1 : maximum * (double) to.length / total;
+    }
+
+    /**
+     * @return a trace for a tick thread to record the transmissions of its neurons, or null if plasticity
+     *         is not traced
+     */
+    EligibilityTrace createTrace() {
+        return traceDecay == 0 ? null : new EligibilityTrace(traceDecay);
+    }
+
+    /**
+     * Rewards the recently transmitting synapses of the type. Every tick thread applies the reward
+     * to the synapses of its own neurons at the start of its next tick.
+     */
+    void reward(SynapseType synapseType, double reward) {
+        (synapseType == SynapseType.EXCITATORY ? excitatoryReward : inhibitoryReward).addAndGet(reward);
+    }
+
+    void applyRewards(EligibilityTrace trace, long now) {
+        if(trace != null) {
+            trace.reward(synapses, excitatoryReward.get(), inhibitoryReward.get(), now);
+        }
+    }
+
+    int queueCapacity() {
+        return configuration.stimulationQueueCapacity == 0 ? DEFAULT_QUEUE_CAPACITY : configuration.stimulationQueueCapacity;
+    }
+
+    /**
+     * Merges stimulation that did not fit into a full queue into the pending sum of the target,
+     * which the tick thread owning the target folds into its potential.
+     */
+    void coalesce(int slot, double stimulation) {
+        coalesced.incrementAndGet();
+        if(state.isRelay(slot)) {
+            state.neuron(slot).recept(stimulation);
+        } else {
+            state.coalesce(slot, stimulation);
+        }
+    }
+
+    /**
+     * Ticks the slot at the given tick. The synapse decay of ticks the slot was not visited at is caught up,
+     * so a slot may be skipped while it is quiescent. The given tick has to be what the clock of the
+     * {@link SynapseTable} reports for the slot.
+     *
+     * @param trace records the transmissions of the neuron, if not null
+     * @param tuning the parameters of the current tick, read once per tick by the calling thread
+     * @return the number of stimulations transmitted by the neuron at the slot
+     */
+    int tick(int slot, SpikeSink sink, EligibilityTrace trace, long now, Tuning tuning) {
+        int transmitted = 0;
+        state.fold(slot);
+        if(state.advance(slot)) {
+            decaySynapses(slot, now - 1, tuning);
+            transmitted = state.neuron(slot).stimulate(sink, trace, now, tuning);
+        }
+        state.decay(slot);
+        if(tuning.synapseDecaying) {
+            state.neuron(slot).decaySynapsesDeferred(now, tuning);
+        }
+        return transmitted;
+    }
+
+    /**
+     * Same as {@link #tick(int, SpikeSink, EligibilityTrace, long, Tuning)} for every marked slot in the range, updating
+     * the potentials of the range in one pass through the {@link TickKernel} of the state. Only valid as long as
+     * no slot of the range receives stimulation on this thread while the range is ticked, as firing neurons
+     * are only visited after every slot of the range was checked against its threshold.
+     *
+     * @param fired scratch space for the slots which fire, has to hold {@code to - from} of them
+     */
+    int tick(int from, int to, int[] fired, SpikeSink sink, EligibilityTrace trace, long now, Tuning tuning) {
+        int transmitted = 0;
+        for(int slot = from; slot < to; slot++) {
+            state.fold(slot);
+        }
+        int firing = state.advance(from, to, fired);
+        for(int i = 0; i < firing; i++) {
+            int slot = fired[i];
+            decaySynapses(slot, now - 1, tuning);
+            transmitted += state.neuron(slot).stimulate(sink, trace, now, tuning);
+        }
+        if(tuning.synapseDecaying) {
+            for(int slot = from; slot < to; slot++) {
+                if(state.isMarked(slot)) {
+                    state.neuron(slot).decaySynapsesDeferred(now, tuning);
+                }
+            }
+        }
+        return transmitted;
+    }
+
+    /**
+     * Applies the decay of the synapses of the slots in the range up to the given tick with the parameters of the ticks
+     * so far, if the next parameters decay them differently, so the lazy decay of a synapse never charges ticks before
+     * the change with the next parameters. Called by the thread ticking the range while it takes up new parameters.
+     *
+     * @return the next parameters
+     */
+    Tuning settle(int from, int to, long tick, Tuning previous, Tuning next) {
+        if(previous == next || previous.decaysAs(next)) {
+            return next;
+        }
+        int[] offsets = synapses.rows().offsets;
+        for(int slot = from; slot < to; slot++) {
+            if(offsets[slot + 1] > offsets[slot]) {
+                state.neuron(slot).decaySynapses(tick, previous);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * @return the pruning of the synapses of the slots in the range, to be swept by the thread ticking them
+     */
+    SynapsePruning pruning(int from, int to) {
+        return new SynapsePruning(state, synapses, Math.max(configuration.pruningIdleTicks, 0), from, to);
+    }
+
+    private void decaySynapses(int slot, long tick, Tuning tuning) {
+        if(tuning.synapseDecaying) {
+            state.neuron(slot).decaySynapses(tick, tuning);
+        }
+    }
+
+    /**
+     * Removes the slot from the active set once it has settled. The slot is checked again after removing it,
+     * as stimulation may have arrived in between without activating it.
+     */
+    void settle(ActiveSet active, int slot) {
+        if(!state.isMarked(slot)) {
+            active.deactivate(slot);
+        } else if(state.isQuiescent(slot)) {
+            active.deactivate(slot);
+            if(!state.isQuiescent(slot)) {
+                active.activate(slot);
+            }
+        }
+    }
+
+    void delay(Tuning tuning) {
+        if(tuning.delayOnNetworkTicking > 0) {
+            try {
+                Thread.sleep(tuning.delayOnNetworkTicking);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
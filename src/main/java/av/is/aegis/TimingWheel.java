@@ -0,0 +1,167 @@
+package av.is.aegis;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel of events keyed by the tick they are due at.
+ *
+ * Every level has {@value #WHEEL_SIZE} buckets, and a bucket of a level spans as many ticks as the whole
+ * level below it. An event is kept at the lowest level able to hold it and is moved down whenever the wheel
+ * reaches the bucket it is waiting in, so scheduling and expiring an event are both constant time.
+ *
+ * Events live in pooled primitive arrays linked per bucket, so a warmed up wheel does not allocate.
+ * The wheel is not thread safe; it is owned by the scheduler clock thread.
+ */
+class TimingWheel {
+
+    static final byte SPIKE = 0;
+    static final byte REFRACTORY_EXPIRY = 1;
+
+    private static final int NONE = -1;
+
+    private static final int BITS = 6;
+    private static final int WHEEL_SIZE = 1 << BITS;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private final int[][] buckets = new int[LEVELS][WHEEL_SIZE];
+
+    private long[] due;
+    private byte[] kinds;
+    private int[] slots;
+    private double[] values;
+    private int[] next;
+
+    private int allocated;
+    private int free = NONE;
+    private volatile int pending;
+
+    private long now;
+
+    TimingWheel(int capacity) {
+        for(int[] bucket : buckets) {
+            Arrays.fill(bucket, NONE);
+        }
+        this.due = new long[capacity];
+        this.kinds = new byte[capacity];
+        this.slots = new int[capacity];
+        this.values = new double[capacity];
+        this.next = new int[capacity];
+    }
+
+    long now() {
+        return now;
+    }
+
+    int pending() {
+        return pending;
+    }
+
+    boolean isEmpty() {
+        return pending == 0;
+    }
+
+    /**
+     * Moves the clock of an empty wheel forward without visiting the skipped ticks.
+     */
+    void skip(long ticks) {
+        if(pending != 0) {
+            throw new IllegalStateException("Cannot skip ticks of a wheel with " + pending + " pending events.");
+        }
+        now += ticks;
+    }
+
+    void schedule(long tick, byte kind, int slot, double value) {
+        int event = allocate();
+        due[event] = Math.max(tick, now + 1);
+        kinds[event] = kind;
+        slots[event] = slot;
+        values[event] = value;
+        insert(event);
+        pending++;
+    }
+
+    /**
+     * Advances the clock by a tick.
+     *
+     * @return the first of the events due at the new tick, linked through {@link #next(int)};
+     *         each of them has to be handed back with {@link #release(int)}
+     */
+    int advance() {
+        now++;
+        if((now & MASK) == 0) {
+            cascade(1);
+        }
+        int index = (int) (now & MASK);
+        int event = buckets[0][index];
+        buckets[0][index] = NONE;
+        return event;
+    }
+
+    int next(int event) {
+        return next[event];
+    }
+
+    byte kind(int event) {
+        return kinds[event];
+    }
+
+    int slot(int event) {
+        return slots[event];
+    }
+
+    double value(int event) {
+        return values[event];
+    }
+
+    void release(int event) {
+        next[event] = free;
+        free = event;
+        pending--;
+    }
+
+    private void cascade(int level) {
+        if(level == LEVELS) {
+            return;
+        }
+        int index = (int) ((now >>> (BITS * level)) & MASK);
+        if(index == 0) {
+            cascade(level + 1);
+        }
+        int event = buckets[level][index];
+        buckets[level][index] = NONE;
+        while(event != NONE) {
+            int following = next[event];
+            insert(event);
+            event = following;
+        }
+    }
+
+    private void insert(int event) {
+        long delta = due[event] - now;
+        int level = 0;
+        while(level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((due[event] >>> (BITS * level)) & MASK);
+        next[event] = buckets[level][index];
+        buckets[level][index] = event;
+    }
+
+    private int allocate() {
+        if(free != NONE) {
+            int event = free;
+            free = next[event];
+            return event;
+        }
+        if(allocated == next.length) {
+            int capacity = allocated * 2;
+            due = Arrays.copyOf(due, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            slots = Arrays.copyOf(slots, capacity);
+            values = Arrays.copyOf(values, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return allocated++;
+    }
+}
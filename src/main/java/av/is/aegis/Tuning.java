@@ -0,0 +1,243 @@
+package av.is.aegis;
+
+import java.util.function.Consumer;
+
+/**
+ * Immutable snapshot of the parameters of a {@link Network.Configuration} read while the network runs,
+ * checked to be within their valid ranges.
+ *
+ * A snapshot is taken when the network starts, after which the configuration is only tuned through
+ * {@link NetworkForm#tune(Consumer)}, which takes a new snapshot. Every tick thread reads the latest
+ * snapshot once per tick and keeps it for the whole tick. In {@link Network.Scheduling#SYNCHRONOUS} scheduling
+ * the snapshot is published between two ticks, so every neuron ticks with the same parameters in a tick,
+ * and tuning from the tick listener takes effect at the next tick. The other schedulings take up the snapshot
+ * with the next pass of each of their threads.
+ *
+ * Synapses decay lazily, by the ticks since they last decayed. A snapshot decaying them differently is therefore only
+ * taken up after the decay of every synapse up to then was applied with the snapshot before, so turning decay off
+ * and on again or changing its ratios has the same effect as if every synapse decayed at every tick.
+ */
+public final class Tuning {
+
+    public final double epspMultiply;
+    public final double ipspMultiply;
+
+    public final boolean synapseDecaying;
+    public final double excitatoryDecayingRatio;
+    public final double inhibitoryDecayingRatio;
+
+    public final boolean synapseReinforcing;
+    public final double excitatoryMaximumStrength;
+    public final double inhibitoryMaximumStrength;
+    public final double excitatoryReinforcementRatio;
+    public final double inhibitoryReinforcementRatio;
+
+    public final double excitatorySuppressionRatio;
+    public final double inhibitorySuppressionRatio;
+    public final double excitatoryGrowRatio;
+    public final double inhibitoryGrowRatio;
+
+    public final int synapsesGrownPerTick;
+    public final double inhibitorySynapseCreationChance;
+
+    public final double pruningMagnitude;
+
+    public final long delayOnNetworkTicking;
+    public final long delayOnQueueStimulation;
+
+    private Tuning(Tuner tuner) {
+        this.epspMultiply = nonNegative("epspMultiply", tuner.epspMultiply);
+        this.ipspMultiply = nonNegative("ipspMultiply", tuner.ipspMultiply);
+
+        this.synapseDecaying = tuner.synapseDecaying;
+        this.excitatoryDecayingRatio = nonNegative("excitatoryDecayingRatio", tuner.excitatoryDecayingRatio);
+        this.inhibitoryDecayingRatio = nonNegative("inhibitoryDecayingRatio", tuner.inhibitoryDecayingRatio);
+
+        this.synapseReinforcing = tuner.synapseReinforcing;
+        this.excitatoryMaximumStrength = nonNegative("excitatoryMaximumStrength", tuner.excitatoryMaximumStrength);
+        this.inhibitoryMaximumStrength = -nonNegative("inhibitoryMaximumStrength", -tuner.inhibitoryMaximumStrength);
+        this.excitatoryReinforcementRatio = nonNegative("excitatoryReinforcementRatio", tuner.excitatoryReinforcementRatio);
+        this.inhibitoryReinforcementRatio = nonNegative("inhibitoryReinforcementRatio", tuner.inhibitoryReinforcementRatio);
+
+        this.excitatorySuppressionRatio = nonNegative("excitatorySuppressionRatio", tuner.excitatorySuppressionRatio);
+        this.inhibitorySuppressionRatio = nonNegative("inhibitorySuppressionRatio", tuner.inhibitorySuppressionRatio);
+        this.excitatoryGrowRatio = nonNegative("excitatoryGrowRatio", tuner.excitatoryGrowRatio);
+        this.inhibitoryGrowRatio = nonNegative("inhibitoryGrowRatio", tuner.inhibitoryGrowRatio);
+
+        if(tuner.synapsesGrownPerTick < 0) {
+            throw new IllegalArgumentException("synapsesGrownPerTick cannot be negative.");
+        }
+        this.synapsesGrownPerTick = tuner.synapsesGrownPerTick;
+        if(!(tuner.inhibitorySynapseCreationChance >= 0 && tuner.inhibitorySynapseCreationChance <= 1)) {
+            throw new IllegalArgumentException("inhibitorySynapseCreationChance has to be between 0 and 1, but was " + tuner.inhibitorySynapseCreationChance + ".");
+        }
+        this.inhibitorySynapseCreationChance = tuner.inhibitorySynapseCreationChance;
+
+        this.pruningMagnitude = nonNegative("pruningMagnitude", tuner.pruningMagnitude);
+
+        if(tuner.delayOnNetworkTicking < 0 || tuner.delayOnQueueStimulation < 0) {
+            throw new IllegalArgumentException("Delays cannot be negative.");
+        }
+        this.delayOnNetworkTicking = tuner.delayOnNetworkTicking;
+        this.delayOnQueueStimulation = tuner.delayOnQueueStimulation;
+    }
+
+    private static double nonNegative(String name, double value) {
+        // Also rejects NaN.
+        if(!(value >= 0 && value < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException(name + " has to be finite and not negative, but was " + value + ".");
+        }
+        return value;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a parameter of the configuration is out of range
+     */
+    static Tuning of(Network.Configuration configuration) {
+        return new Tuning(new Tuner(configuration));
+    }
+
+    /**
+     * @return a snapshot of this one with the given changes
+     * @throws IllegalArgumentException if a changed parameter is out of range
+     */
+    Tuning tune(Consumer<Tuner> changes) {
+        Tuner tuner = new Tuner(this);
+        changes.accept(tuner);
+        return new Tuning(tuner);
+    }
+
+    /**
+     * @return whether synapses decay the same with both snapshots
+     */
+    boolean decaysAs(Tuning other) {
+        return synapseDecaying == other.synapseDecaying && (!synapseDecaying
+                || excitatoryDecayingRatio == other.excitatoryDecayingRatio && inhibitoryDecayingRatio == other.inhibitoryDecayingRatio);
+    }
+
+    /**
+     * Writes the parameters back to the configuration, so it is saved with the network as tuned.
+     */
+    void applyTo(Network.Configuration configuration) {
+        configuration.epspMultiply = epspMultiply;
+        configuration.ipspMultiply = ipspMultiply;
+
+        configuration.synapseDecaying = synapseDecaying;
+        configuration.excitatoryDecayingRatio = excitatoryDecayingRatio;
+        configuration.inhibitoryDecayingRatio = inhibitoryDecayingRatio;
+
+        configuration.synapseReinforcing = synapseReinforcing;
+        configuration.excitatoryMaximumStrength = excitatoryMaximumStrength;
+        configuration.inhibitoryMaximumStrength = inhibitoryMaximumStrength;
+        configuration.excitatoryReinforcementRatio = excitatoryReinforcementRatio;
+        configuration.inhibitoryReinforcementRatio = inhibitoryReinforcementRatio;
+
+        configuration.excitatorySuppressionRatio = excitatorySuppressionRatio;
+        configuration.inhibitorySuppressionRatio = inhibitorySuppressionRatio;
+        configuration.excitatoryGrowRatio = excitatoryGrowRatio;
+        configuration.inhibitoryGrowRatio = inhibitoryGrowRatio;
+
+        configuration.synapsesGrownPerTick = synapsesGrownPerTick;
+        configuration.inhibitorySynapseCreationChance = inhibitorySynapseCreationChance;
+
+        configuration.pruningMagnitude = pruningMagnitude;
+
+        configuration.delayOnNetworkTicking = delayOnNetworkTicking;
+        configuration.delayOnQueueStimulation = delayOnQueueStimulation;
+    }
+
+    /**
+     * Changes to the parameters of a {@link Tuning}, starting from the current ones. The parameters mean the same
+     * as those of {@link Network.Configuration} with the same name.
+     */
+    public static class Tuner {
+
+        public double epspMultiply;
+        public double ipspMultiply;
+
+        public boolean synapseDecaying;
+        public double excitatoryDecayingRatio;
+        public double inhibitoryDecayingRatio;
+
+        public boolean synapseReinforcing;
+        public double excitatoryMaximumStrength;
+        public double inhibitoryMaximumStrength;
+        public double excitatoryReinforcementRatio;
+        public double inhibitoryReinforcementRatio;
+
+        public double excitatorySuppressionRatio;
+        public double inhibitorySuppressionRatio;
+        public double excitatoryGrowRatio;
+        public double inhibitoryGrowRatio;
+
+        /**
+         * Upper bound of synapses grown per tick, or 0 for the default.
+         */
+        public int synapsesGrownPerTick;
+        public double inhibitorySynapseCreationChance;
+
+        /**
+         * Strength below which synapses are pruned, or 0 to keep weak synapses.
+         */
+        public double pruningMagnitude;
+
+        public long delayOnNetworkTicking;
+        public long delayOnQueueStimulation;
+
+        private Tuner(Network.Configuration configuration) {
+            this.epspMultiply = configuration.epspMultiply;
+            this.ipspMultiply = configuration.ipspMultiply;
+
+            this.synapseDecaying = configuration.synapseDecaying;
+            this.excitatoryDecayingRatio = configuration.excitatoryDecayingRatio;
+            this.inhibitoryDecayingRatio = configuration.inhibitoryDecayingRatio;
+
+            this.synapseReinforcing = configuration.synapseReinforcing;
+            this.excitatoryMaximumStrength = configuration.excitatoryMaximumStrength;
+            this.inhibitoryMaximumStrength = configuration.inhibitoryMaximumStrength;
+            this.excitatoryReinforcementRatio = configuration.excitatoryReinforcementRatio;
+            this.inhibitoryReinforcementRatio = configuration.inhibitoryReinforcementRatio;
+
+            this.excitatorySuppressionRatio = configuration.excitatorySuppressionRatio;
+            this.inhibitorySuppressionRatio = configuration.inhibitorySuppressionRatio;
+            this.excitatoryGrowRatio = configuration.excitatoryGrowRatio;
+            this.inhibitoryGrowRatio = configuration.inhibitoryGrowRatio;
+
+            this.synapsesGrownPerTick = configuration.synapsesGrownPerTick;
+            this.inhibitorySynapseCreationChance = configuration.inhibitorySynapseCreationChance;
+
+            this.pruningMagnitude = configuration.pruningMagnitude;
+
+            this.delayOnNetworkTicking = configuration.delayOnNetworkTicking;
+            this.delayOnQueueStimulation = configuration.delayOnQueueStimulation;
+        }
+
+        private Tuner(Tuning tuning) {
+            this.epspMultiply = tuning.epspMultiply;
+            this.ipspMultiply = tuning.ipspMultiply;
+
+            this.synapseDecaying = tuning.synapseDecaying;
+            this.excitatoryDecayingRatio = tuning.excitatoryDecayingRatio;
+            this.inhibitoryDecayingRatio = tuning.inhibitoryDecayingRatio;
+
+            this.synapseReinforcing = tuning.synapseReinforcing;
+            this.excitatoryMaximumStrength = tuning.excitatoryMaximumStrength;
+            this.inhibitoryMaximumStrength = tuning.inhibitoryMaximumStrength;
+            this.excitatoryReinforcementRatio = tuning.excitatoryReinforcementRatio;
+            this.inhibitoryReinforcementRatio = tuning.inhibitoryReinforcementRatio;
+
+            this.excitatorySuppressionRatio = tuning.excitatorySuppressionRatio;
+            this.inhibitorySuppressionRatio = tuning.inhibitorySuppressionRatio;
+            this.excitatoryGrowRatio = tuning.excitatoryGrowRatio;
+            this.inhibitoryGrowRatio = tuning.inhibitoryGrowRatio;
+
+            this.synapsesGrownPerTick = tuning.synapsesGrownPerTick;
+            this.inhibitorySynapseCreationChance = tuning.inhibitorySynapseCreationChance;
+
+            this.pruningMagnitude = tuning.pruningMagnitude;
+
+            this.delayOnNetworkTicking = tuning.delayOnNetworkTicking;
+            this.delayOnQueueStimulation = tuning.delayOnQueueStimulation;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package av.is.aegis;
+
+/**
+ * Access to the kernels using the Vector API, which only exists from Java 16 on as an incubator module.
+ *
+ * This is the implementation for older versions; the multi-release JAR replaces it
+ * with the one in {@code src/main/java21} on Java 21 and later.
+ */
+final class VectorKernels {
+
+    private VectorKernels() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    static TickKernel tickKernel() {
+        return new ScalarTickKernel();
+    }
+}
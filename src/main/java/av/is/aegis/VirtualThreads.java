@@ -0,0 +1,23 @@
+package av.is.aegis;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads, which only exist from Java 21 on.
+ *
+ * This is the implementation for older versions; the multi-release JAR replaces it
+ * with the one in {@code src/main/java21} on Java 21 and later.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    static ExecutorService newExecutor() {
+        throw new UnsupportedOperationException("Virtual threads require Java 21.");
+    }
+}
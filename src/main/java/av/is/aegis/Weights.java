@@ -0,0 +1,203 @@
+package av.is.aegis;
+
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Weights of the synapses of a {@link SynapseTable}, stored in the {@link Network.Precision} and the
+ * {@link Network.SynapseStorage} of the network.
+ *
+ * Weights are read and changed as {@code double}; storing a weight rounds it to the nearest value the precision holds.
+ * Every table holds a single kind of weights, so the calls stay monomorphic for the JIT.
+ */
+abstract class Weights {
+
+    /**
+     * Changes smaller than this many resolutions of a weight are deferred where possible, see {@link #defers(double, double)}.
+     */
+    static final int DEFERRED_RESOLUTIONS = 64;
+
+    static Weights allocate(Network.Precision precision, Network.SynapseStorage storage, int length) {
+        switch(precision) {
+            case FLOAT32:
+                return new Float32(SynapseBuffers.floats(storage, length));
+            case FIXED_16_16:
+                return new Fixed1616(SynapseBuffers.ints(storage, length));
+            default:
+                return new Float64(SynapseBuffers.doubles(storage, length));
+        }
+    }
+
+    abstract Network.Precision precision();
+
+    Network.SynapseStorage storage() {
+        return SynapseBuffers.storage(buffer());
+    }
+
+    abstract Buffer buffer();
+
+    abstract int length();
+
+    abstract double get(int index);
+
+    abstract void set(int index, double weight);
+
+    void add(int index, double delta) {
+        set(index, get(index) + delta);
+    }
+
+    /**
+     * @return the distance between the given weight and the next weight the precision holds
+     */
+    abstract double resolution(double weight);
+
+    /**
+     * @return whether a change of the weight is too small to be stored without rounding away a large part of it,
+     *         so it should rather be accumulated and applied later
+     */
+    boolean defers(double weight, double change) {
+        return Math.abs(change) < DEFERRED_RESOLUTIONS * resolution(weight);
+    }
+
+    /**
+     * @return weights of the given precision and storage holding the same values
+     */
+    Weights convert(Network.Precision precision, Network.SynapseStorage storage) {
+        if(precision == precision() && storage == storage()) {
+            return this;
+        }
+        Weights converted = allocate(precision, storage, length());
+        for(int i = 0; i < length(); i++) {
+            converted.set(i, get(i));
+        }
+        return converted;
+    }
+
+    private static final class Float64 extends Weights {
+
+        private final DoubleBuffer values;
+
+        Float64(DoubleBuffer values) {
+            this.values = values;
+        }
+
+        @Override
+        Network.Precision precision() {
+            return Network.Precision.FLOAT64;
+        }
+
+        @Override
+        Buffer buffer() {
+            return values;
+        }
+
+        @Override
+        int length() {
+            return values.capacity();
+        }
+
+        @Override
+        double get(int index) {
+            return values.get(index);
+        }
+
+        @Override
+        void set(int index, double weight) {
+            values.put(index, weight);
+        }
+
+        @Override
+        double resolution(double weight) {
+            return Math.ulp(weight);
+        }
+
+        @Override
+        boolean defers(double weight, double change) {
+            return false;
+        }
+    }
+
+    private static final class Float32 extends Weights {
+
+        private final FloatBuffer values;
+
+        Float32(FloatBuffer values) {
+            this.values = values;
+        }
+
+        @Override
+        Network.Precision precision() {
+            return Network.Precision.FLOAT32;
+        }
+
+        @Override
+        Buffer buffer() {
+            return values;
+        }
+
+        @Override
+        int length() {
+            return values.capacity();
+        }
+
+        @Override
+        double get(int index) {
+            return values.get(index);
+        }
+
+        @Override
+        void set(int index, double weight) {
+            values.put(index, (float) weight);
+        }
+
+        @Override
+        double resolution(double weight) {
+            return Math.ulp((float) weight);
+        }
+    }
+
+    private static final class Fixed1616 extends Weights {
+
+        private static final double ONE = 1 << 16;
+        private static final double RESOLUTION = 1 / ONE;
+
+        private final IntBuffer values;
+
+        Fixed1616(IntBuffer values) {
+            this.values = values;
+        }
+
+        @Override
+        Network.Precision precision() {
+            return Network.Precision.FIXED_16_16;
+        }
+
+        @Override
+        Buffer buffer() {
+            return values;
+        }
+
+        @Override
+        int length() {
+            return values.capacity();
+        }
+
+        @Override
+        double get(int index) {
+            return values.get(index) * RESOLUTION;
+        }
+
+        @Override
+        void set(int index, double weight) {
+            // Saturates at the ends of the range instead of wrapping around.
+            values.put(index, (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, Math.round(weight * ONE))));
+        }
+
+        @Override
+        double resolution(double weight) {
+            return RESOLUTION;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package av.is.aegis;
+
+/**
+ * Access to the kernels using the Vector API on Java 21 and later.
+ *
+ * The Vector API is still an incubator module, which the JVM only resolves when started with
+ * {@code --add-modules jdk.incubator.vector}. Without it the scalar kernels are used.
+ */
+final class VectorKernels {
+
+    private static final boolean SUPPORTED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private VectorKernels() {
+    }
+
+    static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    static TickKernel tickKernel() {
+        return SUPPORTED ? new VectorTickKernel() : new ScalarTickKernel();
+    }
+}
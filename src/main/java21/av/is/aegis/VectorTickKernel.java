@@ -0,0 +1,54 @@
+package av.is.aegis;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link TickKernel} processing as many slots per instruction as the preferred vector width holds,
+ * with the remainder of a block handled by {@link ScalarTickKernel}.
+ */
+class VectorTickKernel implements TickKernel {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public int tick(double[] potential, double[] threshold, int[] refractoryDuration, boolean[] marked, int from, int to, int[] fired) {
+        // Integers come in more lanes than doubles, so the refractory durations take a loop of their own.
+        int bound = from + DOUBLES.loopBound(to - from);
+        for(int slot = from, end = from + INTS.loopBound(bound - from); slot < end; slot += INTS.length()) {
+            IntVector.fromArray(INTS, refractoryDuration, slot)
+                    .sub(1)
+                    .max(0)
+                    .intoArray(refractoryDuration, slot);
+        }
+        for(int slot = from + INTS.loopBound(bound - from); slot < bound; slot++) {
+            refractoryDuration[slot] = Math.max(0, refractoryDuration[slot] - 1);
+        }
+
+        int count = 0;
+        int slot = from;
+        for(; slot < bound; slot += DOUBLES.length()) {
+            DoubleVector value = DoubleVector.fromArray(DOUBLES, potential, slot);
+            VectorMask<Double> marks = VectorMask.fromArray(DOUBLES, marked, slot);
+            VectorMask<Double> firing = value.compare(VectorOperators.GE, DoubleVector.fromArray(DOUBLES, threshold, slot)).and(marks);
+            // Firing is rare, so lanes are only looked at one by one when any of them fires.
+            if(firing.anyTrue()) {
+                for(long lanes = firing.toLong(); lanes != 0; lanes &= lanes - 1) {
+                    fired[count++] = slot + Long.numberOfTrailingZeros(lanes);
+                }
+            }
+
+            DoubleVector diff = value.sub(Neuron.STABLE_POTENTIAL).mul(0.5d);
+            DoubleVector decayed = diff.add(Neuron.STABLE_POTENTIAL)
+                    .blend(Neuron.STABLE_POTENTIAL, diff.abs().compare(VectorOperators.LT, ScalarTickKernel.SNAP_DISTANCE))
+                    .max(Neuron.STABLE_POTENTIAL);
+            // Blending and storing every lane is cheaper than a masked store.
+            value.blend(decayed, marks.andNot(firing)).intoArray(potential, slot);
+        }
+        return ScalarTickKernel.tick(potential, threshold, refractoryDuration, marked, slot, to, fired, count);
+    }
+}
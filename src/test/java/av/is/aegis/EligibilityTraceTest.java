@@ -0,0 +1,79 @@
+package av.is.aegis;
+
+import java.util.logging.Logger;
+
+/**
+ * Records transmissions of a few synapses into an eligibility trace, rewards them and checks that exactly the synapses
+ * transmitted within the horizon of the trace changed, by the reward of their type times their summed trace.
+ *
+ * Placed in the package of the network, as the weights of single synapses are not part of its public interface.
+ */
+public class EligibilityTraceTest {
+
+    private static final Logger LOGGER = Logger.getLogger("EligibilityTraceTest");
+
+    private static final double DECAY = 0.5d;
+    private static final double WEIGHT = 10;
+    private static final long NOW = 10;
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        SynapseTable synapses = new SynapseTable(4);
+        synapses.add(0, 1, SynapseType.EXCITATORY, WEIGHT, 0);
+        synapses.add(0, 2, SynapseType.INHIBITORY, -WEIGHT, 0);
+        synapses.add(1, 2, SynapseType.EXCITATORY, WEIGHT, 0);
+        synapses.add(2, 3, SynapseType.EXCITATORY, WEIGHT, 0);
+        synapses.add(3, 1, SynapseType.EXCITATORY, WEIGHT, 0);
+        synapses.merge();
+
+        EligibilityTrace trace = new EligibilityTrace(DECAY);
+        // Too old to be eligible by now, the trace of 0.5 decays below the minimum after 7 ticks.
+        trace.record(2, SynapseTable.encode(3, SynapseType.EXCITATORY), 1);
+        trace.record(1, SynapseTable.encode(2, SynapseType.EXCITATORY), NOW - 2);
+        trace.record(1, SynapseTable.encode(2, SynapseType.EXCITATORY), NOW - 1);
+        trace.record(0, SynapseTable.encode(1, SynapseType.EXCITATORY), NOW - 1);
+        trace.record(0, SynapseTable.encode(2, SynapseType.INHIBITORY), NOW - 1);
+
+        trace.reward(synapses, 1, -2, NOW);
+        check(synapses, "first reward", 0, 1, SynapseType.EXCITATORY, WEIGHT + 0.5d);
+        check(synapses, "first reward", 0, 2, SynapseType.INHIBITORY, -WEIGHT - 1);
+        check(synapses, "first reward", 1, 2, SynapseType.EXCITATORY, WEIGHT + 0.25d + 0.5d);
+        check(synapses, "first reward", 2, 3, SynapseType.EXCITATORY, WEIGHT);
+        check(synapses, "first reward", 3, 1, SynapseType.EXCITATORY, WEIGHT);
+
+        // Rewards are cumulative, only the part not applied yet changes the synapses.
+        trace.reward(synapses, 1, -2, NOW);
+        check(synapses, "repeated reward", 0, 1, SynapseType.EXCITATORY, WEIGHT + 0.5d);
+        check(synapses, "repeated reward", 0, 2, SynapseType.INHIBITORY, -WEIGHT - 1);
+
+        trace.reward(synapses, 1.5d, -2, NOW);
+        check(synapses, "excitatory reward", 0, 1, SynapseType.EXCITATORY, WEIGHT + 0.75d);
+        check(synapses, "excitatory reward", 0, 2, SynapseType.INHIBITORY, -WEIGHT - 1);
+        check(synapses, "excitatory reward", 1, 2, SynapseType.EXCITATORY, WEIGHT + 1.125d);
+        check(synapses, "excitatory reward", 3, 1, SynapseType.EXCITATORY, WEIGHT);
+
+        if(failures == 0) {
+            LOGGER.info("Rewards changed exactly the recently transmitted synapses of their type.");
+        } else {
+            LOGGER.warning(failures + " synapses were rewarded wrong.");
+        }
+    }
+
+    private static void check(SynapseTable synapses, String step, int source, int target, SynapseType synapseType, double expected) {
+        SynapseTable.Rows rows = synapses.rows();
+        int entry = SynapseTable.encode(target, synapseType);
+        for(int i = rows.offsets[source], end = rows.offsets[source + 1]; i < end; i++) {
+            if(rows.targets.get(i) == entry) {
+                double weight = rows.weights.get(i);
+                if(Math.abs(weight - expected) > 1e-9) {
+                    LOGGER.warning("After the " + step + ", " + source + " -> " + target + " weighs " + weight + " instead of " + expected + ".");
+                    failures++;
+                }
+                return;
+            }
+        }
+        LOGGER.warning("After the " + step + ", " + source + " -> " + target + " is missing.");
+        failures++;
+    }
+}
@@ -0,0 +1,74 @@
+package av.is.aegis.test;
+
+import av.is.aegis.Network;
+import av.is.aegis.NetworkBuilder;
+import av.is.aegis.NetworkForm;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Contention benchmark of membrane potential accumulation: many threads stimulate the same few input neurons,
+ * like presynaptic neurons converging on a hub neuron.
+ *
+ * Run once with {@code ATOMIC} and once with {@code STRIPED} as the first argument and compare the stimulations per second.
+ * The second argument is the number of stimulating threads, 100 by default as the thread pool size.
+ */
+public class AccumulationBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger("AccumulationBenchmark");
+
+    private static final int INPUTS = 3;
+    private static final long WARM_UP_MILLIS = 2000;
+    private static final long MEASURE_MILLIS = 5000;
+
+    public static void main(String[] args) throws InterruptedException {
+        Network.Accumulation accumulation = args.length > 0 ? Network.Accumulation.valueOf(args[0]) : Network.Accumulation.STRIPED;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        NetworkForm form = NetworkBuilder.builder()
+                .inputs(INPUTS).inters(100).outputs(2)
+                .visualize(false)
+                .configure(configuration -> {
+            configuration.accumulation = accumulation;
+
+            configuration.loggers.stimulations = false;
+            configuration.loggers.memory = false;
+            configuration.loggers.awaitingStimulationQueue = false;
+            configuration.loggers.markedNeurons = false;
+            configuration.loggers.currentWorkingThreads = false;
+            configuration.loggers.tickRate = false;
+        }).build();
+        form.start();
+
+        LongAdder stimulations = new LongAdder();
+        CountDownLatch finished = new CountDownLatch(threads);
+        long measureFrom = System.currentTimeMillis() + WARM_UP_MILLIS;
+        long measureTo = measureFrom + MEASURE_MILLIS;
+        for(int i = 0; i < threads; i++) {
+            int input = i % INPUTS;
+            Thread thread = new Thread(() -> {
+                long count = 0;
+                long now;
+                while((now = System.currentTimeMillis()) < measureTo) {
+                    // Inhibiting keeps the inputs from firing, so only the accumulation itself is measured.
+                    for(int j = 0; j < 1000; j++) {
+                        form.stimulate(input, -0.001);
+                    }
+                    if(now >= measureFrom) {
+                        count += 1000;
+                    }
+                }
+                stimulations.add(count);
+                finished.countDown();
+            }, "Stimulating - #" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        finished.await();
+
+        LOGGER.info(accumulation + " with " + threads + " threads: " + String.format("%,d", stimulations.sum() * 1000 / MEASURE_MILLIS) + " stimulations/s");
+        System.exit(0);
+    }
+}
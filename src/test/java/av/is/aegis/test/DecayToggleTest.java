@@ -0,0 +1,102 @@
+package av.is.aegis.test;
+
+import av.is.aegis.Network;
+import av.is.aegis.NetworkBuilder;
+import av.is.aegis.NetworkForm;
+import av.is.aegis.Tuning;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Runs two networks with the same seed side by side in synchronous scheduling. The first switches synapse decay off
+ * for a while and the second sets its decaying ratios to zero for the same ticks instead, which is the same if every
+ * synapse decays at every tick. Checks that both transmitted the same stimulations and produced the same outputs by
+ * the last tick, so synapses which decay lazily are not charged for the ticks decay was switched off.
+ *
+ * Run with a seed as the first argument to check another seed.
+ */
+public class DecayToggleTest {
+
+    private static final Logger LOGGER = Logger.getLogger("DecayToggleTest");
+
+    private static final long PAUSED_AT = 500;
+    private static final long RESUMED_AT = 1500;
+    private static final long TICKS = 3000;
+    private static final int STIMULATION_INTERVAL = 5;
+    private static final double DECAYING_RATIO = 0.01d;
+
+    public static void main(String[] args) throws InterruptedException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42;
+
+        Run toggled = new Run(seed, tuner -> tuner.synapseDecaying = false, tuner -> tuner.synapseDecaying = true);
+        Run zeroed = new Run(seed, tuner -> {
+            tuner.excitatoryDecayingRatio = 0;
+            tuner.inhibitoryDecayingRatio = 0;
+        }, tuner -> {
+            tuner.excitatoryDecayingRatio = DECAYING_RATIO;
+            tuner.inhibitoryDecayingRatio = DECAYING_RATIO;
+        });
+        toggled.latch.await();
+        zeroed.latch.await();
+
+        LOGGER.info("Toggled: " + toggled.transmitted + " stimulations, " + toggled.outputs + " outputs");
+        LOGGER.info("Zeroed: " + zeroed.transmitted + " stimulations, " + zeroed.outputs + " outputs");
+        if(toggled.transmitted != zeroed.transmitted || toggled.outputs != zeroed.outputs) {
+            LOGGER.warning("Switching decay off and on diverged from decaying by nothing for the same ticks.");
+        } else if(toggled.transmitted == 0) {
+            LOGGER.warning("Nothing was transmitted; the check is meaningless.");
+        } else {
+            LOGGER.info("Switching decay off and on decayed synapses as if they decayed at every tick.");
+        }
+        System.exit(0);
+    }
+
+    private static class Run {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile long transmitted;
+        private volatile long outputs;
+
+        Run(long seed, Consumer<Tuning.Tuner> pause, Consumer<Tuning.Tuner> resume) {
+            NetworkForm form = NetworkBuilder.builder()
+                    .inputs(3).inters(1000).outputs(2)
+                    .visualize(false)
+                    .seed(seed)
+                    .configure(configuration -> {
+                configuration.scheduling = Network.Scheduling.SYNCHRONOUS;
+                configuration.excitatoryDecayingRatio = DECAYING_RATIO;
+                configuration.inhibitoryDecayingRatio = DECAYING_RATIO;
+
+                configuration.loggers.stimulations = false;
+                configuration.loggers.memory = false;
+                configuration.loggers.awaitingStimulationQueue = false;
+                configuration.loggers.markedNeurons = false;
+                configuration.loggers.currentWorkingThreads = false;
+                configuration.loggers.tickRate = false;
+            }).build();
+
+            AtomicLong outputs = new AtomicLong();
+            form.outputListener((neuron, value) -> outputs.incrementAndGet());
+            form.tickListener(tick -> {
+                if(tick == PAUSED_AT) {
+                    form.tune(pause);
+                } else if(tick == RESUMED_AT) {
+                    form.tune(resume);
+                }
+                if(tick < TICKS) {
+                    if(tick % STIMULATION_INTERVAL == 0) {
+                        form.stimulate((int) (tick / STIMULATION_INTERVAL % 3), 60);
+                    }
+                } else if(tick == TICKS) {
+                    this.outputs = outputs.get();
+                    this.transmitted = form.getTransmittedStimulations();
+                    latch.countDown();
+                }
+            });
+            form.start();
+        }
+    }
+}
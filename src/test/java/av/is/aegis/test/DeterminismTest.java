@@ -0,0 +1,82 @@
+package av.is.aegis.test;
+
+import av.is.aegis.Network;
+import av.is.aegis.NetworkBuilder;
+import av.is.aegis.NetworkForm;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Runs two networks with the same seed side by side in synchronous scheduling, stimulates both at the same ticks
+ * and checks that both transmitted the same stimulations and produced the same outputs by the last tick.
+ *
+ * Run with a seed as the first argument to check another seed.
+ */
+public class DeterminismTest {
+
+    private static final Logger LOGGER = Logger.getLogger("DeterminismTest");
+
+    private static final long TICKS = 3000;
+    private static final int STIMULATION_INTERVAL = 5;
+
+    public static void main(String[] args) throws InterruptedException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42;
+
+        Run first = new Run(seed);
+        Run second = new Run(seed);
+        first.latch.await();
+        second.latch.await();
+
+        LOGGER.info("First: " + first.transmitted + " stimulations, " + first.outputs + " outputs");
+        LOGGER.info("Second: " + second.transmitted + " stimulations, " + second.outputs + " outputs");
+        if(first.transmitted != second.transmitted || first.outputs != second.outputs) {
+            LOGGER.warning("Networks with the same seed diverged.");
+        } else if(first.transmitted == 0) {
+            LOGGER.warning("Nothing was transmitted; the check is meaningless.");
+        } else {
+            LOGGER.info("Networks with the same seed are identical after " + TICKS + " ticks.");
+        }
+        System.exit(0);
+    }
+
+    private static class Run {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile long transmitted;
+        private volatile long outputs;
+
+        Run(long seed) {
+            NetworkForm form = NetworkBuilder.builder()
+                    .inputs(3).inters(1000).outputs(2)
+                    .visualize(false)
+                    .seed(seed)
+                    .configure(configuration -> {
+                configuration.scheduling = Network.Scheduling.SYNCHRONOUS;
+
+                configuration.loggers.stimulations = false;
+                configuration.loggers.memory = false;
+                configuration.loggers.awaitingStimulationQueue = false;
+                configuration.loggers.markedNeurons = false;
+                configuration.loggers.currentWorkingThreads = false;
+                configuration.loggers.tickRate = false;
+            }).build();
+
+            AtomicLong outputs = new AtomicLong();
+            form.outputListener((neuron, value) -> outputs.incrementAndGet());
+            form.tickListener(tick -> {
+                if(tick < TICKS) {
+                    if(tick % STIMULATION_INTERVAL == 0) {
+                        form.stimulate((int) (tick / STIMULATION_INTERVAL % 3), 60);
+                    }
+                } else if(tick == TICKS) {
+                    this.outputs = outputs.get();
+                    this.transmitted = form.getTransmittedStimulations();
+                    latch.countDown();
+                }
+            });
+            form.start();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package av.is.aegis.test;
+
+import av.is.aegis.Network;
+import av.is.aegis.NetworkBuilder;
+import av.is.aegis.NetworkForm;
+import av.is.aegis.NetworkHost;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+/**
+ * Hosts a number of networks of the same size on a few shared workers and checks that the JVM runs no more threads
+ * than the workers and that every network got a fair share of the ticks. Every other network is configured
+ * in free running scheduling, which the host replaces by synchronous scheduling.
+ *
+ * Run with the number of networks as the first argument and the number of workers as the second.
+ */
+public class NetworkHostTest {
+
+    private static final Logger LOGGER = Logger.getLogger("NetworkHostTest");
+
+    private static final int INPUTS = 3;
+    private static final long WARM_UP_MILLIS = 3000;
+    private static final long MEASURED_MILLIS = 5000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int networks = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        int threads = Thread.activeCount();
+        NetworkHost host = NetworkHost.builder().workers(workers).build();
+        AtomicLongArray ticks = new AtomicLongArray(networks);
+        for(int i = 0; i < networks; i++) {
+            int network = i;
+            NetworkForm form = NetworkBuilder.builder()
+                    .inputs(INPUTS).inters(1000).outputs(2)
+                    .visualize(false)
+                    .host(host)
+                    .configure(configuration -> {
+                configuration.scheduling = network % 2 == 0 ? Network.Scheduling.SYNCHRONOUS : Network.Scheduling.FREE_RUNNING;
+
+                configuration.loggers.stimulations = false;
+                configuration.loggers.memory = false;
+                configuration.loggers.awaitingStimulationQueue = false;
+                configuration.loggers.markedNeurons = false;
+                configuration.loggers.currentWorkingThreads = false;
+                configuration.loggers.tickRate = false;
+            }).build();
+            form.tickListener(tick -> {
+                ticks.set(network, tick);
+                if(tick % 5 == 0) {
+                    form.stimulate((int) (tick / 5 % INPUTS), 60);
+                }
+            });
+            form.start();
+        }
+
+        Thread.sleep(WARM_UP_MILLIS);
+        long[] started = new long[networks];
+        for(int i = 0; i < networks; i++) {
+            started[i] = ticks.get(i);
+        }
+        Thread.sleep(MEASURED_MILLIS);
+
+        long minimum = Long.MAX_VALUE;
+        long maximum = 0;
+        for(int i = 0; i < networks; i++) {
+            long ran = ticks.get(i) - started[i];
+            minimum = Math.min(minimum, ran);
+            maximum = Math.max(maximum, ran);
+        }
+        int added = Thread.activeCount() - threads;
+        LOGGER.info(networks + " networks on " + workers + " workers started " + added + " threads, "
+                + "ticked " + minimum + " to " + maximum + " times each in " + MEASURED_MILLIS + " ms");
+        if(added > workers) {
+            LOGGER.warning("Hosted networks started threads of their own.");
+        } else if(minimum == 0 || maximum > minimum * 2) {
+            LOGGER.warning("Networks were not ticked fairly.");
+        } else {
+            LOGGER.info("Every network was ticked fairly on the shared workers.");
+        }
+        System.exit(0);
+    }
+}
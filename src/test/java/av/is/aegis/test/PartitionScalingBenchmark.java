@@ -0,0 +1,68 @@
+package av.is.aegis.test;
+
+import av.is.aegis.NetworkBuilder;
+import av.is.aegis.NetworkForm;
+
+import java.util.logging.Logger;
+
+/**
+ * Spike throughput of partitioned scheduling on the network shape of {@link VideoInputTest}.
+ *
+ * Run with the partition count as the first argument, e.g. 1, 2, 4 and 8, and compare the stimulations per second.
+ */
+public class PartitionScalingBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger("PartitionScalingBenchmark");
+
+    private static final int VOLUME = 28 * 28;
+
+    private static final long WARM_UP_MILLIS = 5000;
+    private static final long MEASURE_MILLIS = 10000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int partitions = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+
+        NetworkForm form = NetworkBuilder.builder()
+                .inputs(VOLUME)
+                .inters(3000)
+                .outputs(VOLUME)
+                .visualize(false)
+                .partitions(partitions)
+                .configure(configuration -> {
+                    configuration.inhibitorySynapseCreationChance = 0.5d;
+
+                    configuration.loggers.stimulations = false;
+                    configuration.loggers.memory = false;
+                    configuration.loggers.awaitingStimulationQueue = false;
+                    configuration.loggers.markedNeurons = false;
+                    configuration.loggers.currentWorkingThreads = false;
+                })
+                .build();
+        form.start();
+
+        Thread stimulating = new Thread(() -> {
+            int input = 0;
+            while(true) {
+                form.stimulate(input, 60);
+                input = (input + 1) % VOLUME;
+                if(input == 0) {
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }, "Stimulating");
+        stimulating.setDaemon(true);
+        stimulating.start();
+
+        Thread.sleep(WARM_UP_MILLIS);
+        long transmitted = form.getTransmittedStimulations();
+        Thread.sleep(MEASURE_MILLIS);
+        transmitted = form.getTransmittedStimulations() - transmitted;
+
+        LOGGER.info(partitions + " partitions: " + String.format("%,d", transmitted * 1000 / MEASURE_MILLIS) + " stimulations/s");
+        System.exit(0);
+    }
+}
@@ -0,0 +1,94 @@
+package av.is.aegis.test;
+
+import av.is.aegis.Network;
+import av.is.aegis.NetworkBuilder;
+import av.is.aegis.NetworkForm;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Logger;
+
+/**
+ * Measures the bytes allocated by the tick and delivery threads per transmitted stimulation.
+ *
+ * Run with {@code EXECUTOR} as the first argument to compare against delivery through the thread pool.
+ */
+public class SpikeAllocationTest {
+
+    private static final Logger LOGGER = Logger.getLogger("SpikeAllocationTest");
+
+    private static final long WARM_UP_MILLIS = 3000;
+    private static final long MEASURE_MILLIS = 5000;
+
+    /**
+     * Allowance for incidental allocation such as logging or a synapse merge, far below a task per stimulation.
+     */
+    private static final double ALLOWED_BYTES_PER_STIMULATION = 1;
+
+    public static void main(String[] args) throws InterruptedException {
+        Network.SpikeDelivery delivery = args.length > 0 ? Network.SpikeDelivery.valueOf(args[0]) : Network.SpikeDelivery.RING_BUFFER;
+
+        NetworkForm form = NetworkBuilder.builder()
+                .inputs(3).inters(1000).outputs(2)
+                .visualize(false)
+                .configure(configuration -> {
+            configuration.spikeDelivery = delivery;
+            configuration.synapseDecaying = false;
+
+            configuration.loggers.stimulations = false;
+            configuration.loggers.memory = false;
+            configuration.loggers.awaitingStimulationQueue = false;
+            configuration.loggers.markedNeurons = false;
+            configuration.loggers.currentWorkingThreads = false;
+            configuration.loggers.tickRate = false;
+        }).build();
+        form.start();
+
+        stimulate(form, WARM_UP_MILLIS);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] ids = networkThreads();
+        long bytes = -sum(threads.getThreadAllocatedBytes(ids));
+        long transmitted = -form.getTransmittedStimulations();
+
+        stimulate(form, MEASURE_MILLIS);
+
+        bytes += sum(threads.getThreadAllocatedBytes(ids));
+        transmitted += form.getTransmittedStimulations();
+
+        double perStimulation = transmitted == 0 ? 0 : (double) bytes / transmitted;
+        LOGGER.info(delivery + ": " + transmitted + " stimulations, " + bytes + " bytes allocated by " + ids.length + " threads, "
+                + String.format("%.4f", perStimulation) + " bytes/stimulation");
+        if(transmitted == 0) {
+            LOGGER.warning("Nothing was transmitted; the measurement is meaningless.");
+        } else if(perStimulation > ALLOWED_BYTES_PER_STIMULATION) {
+            LOGGER.warning("Spike delivery allocates.");
+        }
+        System.exit(0);
+    }
+
+    private static void stimulate(NetworkForm form, long millis) throws InterruptedException {
+        long end = System.currentTimeMillis() + millis;
+        int input = 0;
+        while(System.currentTimeMillis() < end) {
+            form.stimulate(input++ % 3, 60);
+            Thread.sleep(5);
+        }
+    }
+
+    private static long[] networkThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("Network Ticking") || thread.getName().startsWith("Spike Delivery"))
+                .mapToLong(Thread::getId)
+                .toArray();
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for(long value : values) {
+            if(value > 0) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,82 @@
+package av.is.aegis.test;
+
+import av.is.aegis.Network;
+import av.is.aegis.NetworkBuilder;
+import av.is.aegis.NetworkForm;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Logger;
+
+/**
+ * Ticks a seeded synchronous network whose synapses decay quickly, and checks that the weak and unused synapses are
+ * pruned while it ticks, that merging reclaims their storage and that the neurons they belonged to grow new ones.
+ *
+ * Run with the scheduling as the first argument to check another scheduling.
+ */
+public class SynapsePruningTest {
+
+    private static final Logger LOGGER = Logger.getLogger("SynapsePruningTest");
+
+    private static final int INPUTS = 3;
+    private static final long WARM_UP_TICKS = 1000;
+    private static final long MEASURED_TICKS = 2000;
+
+    public static void main(String[] args) throws InterruptedException {
+        Network.Scheduling scheduling = args.length > 0 ? Network.Scheduling.valueOf(args[0]) : Network.Scheduling.SYNCHRONOUS;
+
+        NetworkForm form = NetworkBuilder.builder()
+                .inputs(INPUTS).inters(2000).outputs(2)
+                .visualize(false)
+                .seed(42)
+                .configure(configuration -> {
+            configuration.scheduling = scheduling;
+            configuration.maxSynapsesForInterNeurons = 20;
+            configuration.synapsesGrownPerTick = 100;
+            // Synapses fall from 5 below the pruning magnitude within 300 ticks unless they are reinforced.
+            configuration.excitatoryDecayingRatio = 0.01d;
+            configuration.inhibitoryDecayingRatio = 0.01d;
+            configuration.pruningMagnitude = 2;
+            configuration.pruningIdleTicks = 500;
+
+            configuration.loggers.stimulations = false;
+            configuration.loggers.memory = false;
+            configuration.loggers.awaitingStimulationQueue = false;
+            configuration.loggers.markedNeurons = false;
+            configuration.loggers.currentWorkingThreads = false;
+            configuration.loggers.tickRate = false;
+        }).build();
+
+        CountDownLatch warmedUp = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        form.tickListener(tick -> {
+            form.stimulate((int) (tick % INPUTS), 60);
+            // An event driven clock skips the ticks it has nothing to do at.
+            if(tick >= WARM_UP_TICKS) {
+                warmedUp.countDown();
+            }
+            if(tick >= WARM_UP_TICKS + MEASURED_TICKS) {
+                finished.countDown();
+            }
+        });
+        form.start();
+        // Schedulings which only tick with something to do are kept going by the tick listener from then on.
+        form.stimulate(0, 60);
+        warmedUp.await();
+        long grown = form.getGrownSynapses();
+        long pruned = form.getPrunedSynapses();
+        finished.await();
+        grown = form.getGrownSynapses() - grown;
+        pruned = form.getPrunedSynapses() - pruned;
+
+        LOGGER.info(scheduling + ": " + form.getPrunedSynapses() + " synapses pruned, " + form.getReclaimedSynapseBytes() + " bytes reclaimed, "
+                + pruned + " pruned and " + grown + " grown in " + MEASURED_TICKS + " ticks");
+        if(pruned == 0 || form.getReclaimedSynapseBytes() == 0) {
+            LOGGER.warning("Weak synapses were not pruned and reclaimed.");
+        } else if(grown == 0) {
+            LOGGER.warning("Pruned synapses were not grown again.");
+        } else {
+            LOGGER.info("Weak synapses were pruned and grown again while the network ticked.");
+        }
+        System.exit(0);
+    }
+}
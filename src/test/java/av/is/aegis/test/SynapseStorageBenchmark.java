@@ -0,0 +1,113 @@
+package av.is.aegis.test;
+
+import av.is.aegis.Network;
+import av.is.aegis.NetworkBuilder;
+import av.is.aegis.NetworkForm;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Logger;
+
+/**
+ * Measures the garbage collection of a synchronous network storing its synapses on or off the heap, while it ticks
+ * and merges the synapses it grows.
+ *
+ * Every run takes a fresh JVM, as the tick threads of a network never stop: run with {@code HEAP} or {@code OFF_HEAP}
+ * as the first argument and the number of inter neurons as the second, each of which grows up to 50 synapses.
+ * Compare the collection time and the full collection of both storages as the number of neurons grows, with the same
+ * {@code -Xmx} and a {@code -XX:MaxDirectMemorySize} of a few times the synapses, such as 512 MB for 100,000 neurons.
+ */
+public class SynapseStorageBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger("SynapseStorageBenchmark");
+
+    private static final int INPUTS = 3;
+    private static final int SYNAPSES_PER_NEURON = 50;
+    private static final long WARM_UP_TICKS = 500;
+    private static final long MEASURED_TICKS = 500;
+
+    public static void main(String[] args) throws InterruptedException {
+        Network.SynapseStorage storage = args.length > 0 ? Network.SynapseStorage.valueOf(args[0]) : Network.SynapseStorage.OFF_HEAP;
+        int inters = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        NetworkForm form = NetworkBuilder.builder()
+                .inputs(INPUTS).inters(inters).outputs(2)
+                .visualize(false)
+                .seed(42)
+                .configure(configuration -> {
+            configuration.scheduling = Network.Scheduling.SYNCHRONOUS;
+            configuration.synapseStorage = storage;
+            configuration.maxSynapsesForInterNeurons = SYNAPSES_PER_NEURON;
+            configuration.synapsesGrownPerTick = inters * SYNAPSES_PER_NEURON / (int) WARM_UP_TICKS;
+
+            configuration.loggers.stimulations = false;
+            configuration.loggers.memory = false;
+            configuration.loggers.awaitingStimulationQueue = false;
+            configuration.loggers.markedNeurons = false;
+            configuration.loggers.currentWorkingThreads = false;
+            configuration.loggers.tickRate = false;
+        }).build();
+
+        CountDownLatch warmedUp = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        form.tickListener(tick -> {
+            form.stimulate((int) (tick % INPUTS), 60);
+            if(tick == WARM_UP_TICKS) {
+                warmedUp.countDown();
+            } else if(tick == WARM_UP_TICKS + MEASURED_TICKS) {
+                finished.countDown();
+            }
+        });
+        form.start();
+        warmedUp.await();
+
+        long collections = collections();
+        long collectionMillis = collectionMillis();
+        long start = System.nanoTime();
+        finished.await();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        collections = collections() - collections;
+        collectionMillis = collectionMillis() - collectionMillis;
+
+        // A full collection traverses the whole live heap, so its pause grows with whatever the heap holds.
+        long fullStart = System.nanoTime();
+        System.gc();
+        long fullMillis = (System.nanoTime() - fullStart) / 1_000_000;
+
+        Runtime runtime = Runtime.getRuntime();
+        LOGGER.info(storage + " with " + String.format("%,d", inters) + " inter neurons: "
+                + String.format("%,d", form.getGrownSynapses()) + " synapses grown, "
+                + collections + " collections taking " + collectionMillis + " of " + millis + " ms, "
+                + "full collection " + fullMillis + " ms, "
+                + (runtime.totalMemory() - runtime.freeMemory()) / 1024 / 1024 + " MB heap, "
+                + directMemory() / 1024 / 1024 + " MB direct");
+        System.exit(0);
+    }
+
+    private static long collections() {
+        long collections = 0;
+        for(GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += collector.getCollectionCount();
+        }
+        return collections;
+    }
+
+    private static long collectionMillis() {
+        long millis = 0;
+        for(GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += collector.getCollectionTime();
+        }
+        return millis;
+    }
+
+    private static long directMemory() {
+        for(BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if(pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+}
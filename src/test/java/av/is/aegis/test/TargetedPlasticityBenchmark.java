@@ -0,0 +1,57 @@
+package av.is.aegis.test;
+
+import av.is.aegis.Network;
+import av.is.aegis.NetworkForm;
+import av.is.aegis.NetworkLoader;
+import av.is.aegis.Neuron;
+import av.is.aegis.SynapseType;
+
+import java.io.File;
+import java.util.logging.Logger;
+
+/**
+ * Measures {@link NetworkForm#suppressOf(Neuron, SynapseType)} and {@link NetworkForm#growOf(Neuron, SynapseType)}
+ * from the input neurons of the bundled follower network, whose inputs reach nearly every neuron.
+ *
+ * Run with the path of another network as the first argument to measure that one instead.
+ */
+public class TargetedPlasticityBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger("TargetedPlasticityBenchmark");
+
+    private static final int WARM_UP_CALLS = 50;
+    private static final int MEASURED_CALLS = 200;
+
+    public static void main(String[] args) {
+        File file = new File(args.length > 0 ? args[0] : "aegis/follower.aegis");
+        NetworkLoader loader = new NetworkLoader(file);
+        NetworkForm form = loader.load();
+
+        Network.Configuration configuration = form.config();
+        configuration.loggers.stimulations = false;
+        configuration.loggers.memory = false;
+        configuration.loggers.awaitingStimulationQueue = false;
+        configuration.loggers.markedNeurons = false;
+        configuration.loggers.currentWorkingThreads = false;
+        configuration.loggers.tickRate = false;
+        loader.start();
+
+        Neuron input = form.getInputNeuron(0);
+        for(SynapseType synapseType : SynapseType.values()) {
+            for(int i = 0; i < WARM_UP_CALLS; i++) {
+                form.suppressOf(input, synapseType);
+                form.growOf(input, synapseType);
+            }
+
+            long start = System.nanoTime();
+            for(int i = 0; i < MEASURED_CALLS; i++) {
+                form.suppressOf(input, synapseType);
+                form.growOf(input, synapseType);
+            }
+            long nanos = System.nanoTime() - start;
+            LOGGER.info(synapseType + ": " + String.format("%.3f", nanos / 1_000_000d / (MEASURED_CALLS * 2)) + " ms per call on "
+                    + Runtime.getRuntime().availableProcessors() + " processors");
+        }
+        System.exit(0);
+    }
+}
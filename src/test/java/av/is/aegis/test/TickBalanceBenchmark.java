@@ -0,0 +1,106 @@
+package av.is.aegis.test;
+
+import av.is.aegis.Network;
+import av.is.aegis.NetworkBuilder;
+import av.is.aegis.NetworkForm;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Compares the ticks per second and the load imbalance of a network dividing its neurons among the tick threads
+ * in equal ranges against dividing them by the work they cause.
+ *
+ * Every run takes a fresh JVM, as the tick threads of a network never stop: run with {@code EQUAL} or {@code BALANCED}
+ * as the first argument, the number of inter neurons as the second, the number of tick threads as the third
+ * and {@code SYNCHRONOUS} or {@code FREE_RUNNING} as the fourth. Free-running threads tick at their own pace,
+ * so a free-running network is stimulated at a fixed rate instead and compared by the stimulations it transmits per second.
+ * Give the JVM at least as many processors as tick threads, or the threads wait for each other instead of working.
+ */
+public class TickBalanceBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger("TickBalanceBenchmark");
+
+    private static final int INPUTS = 3;
+    private static final long WARM_UP_TICKS = 2000;
+    private static final long MEASURED_TICKS = 3000;
+    private static final long STIMULATION_NANOS = 250_000L;
+    private static final long WARM_UP_MILLIS = 2000;
+    private static final long MEASURED_MILLIS = 3000;
+
+    public static void main(String[] args) throws InterruptedException {
+        Network.TickDivision division = args.length > 0 ? Network.TickDivision.valueOf(args[0]) : Network.TickDivision.BALANCED;
+        int inters = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Network.Scheduling scheduling = args.length > 3 ? Network.Scheduling.valueOf(args[3]) : Network.Scheduling.SYNCHRONOUS;
+
+        NetworkForm form = NetworkBuilder.builder()
+                .inputs(INPUTS).inters(inters).outputs(2)
+                .visualize(false)
+                .seed(42)
+                .configure(configuration -> {
+            configuration.scheduling = scheduling;
+            configuration.tickDivision = division;
+            configuration.threadSizeForTicking = threads;
+            // Grows slowly enough for the marked neurons to stay a minority, which fire in bursts.
+            configuration.synapsesGrownPerTick = 64;
+
+            configuration.loggers.stimulations = false;
+            configuration.loggers.memory = false;
+            configuration.loggers.awaitingStimulationQueue = false;
+            configuration.loggers.markedNeurons = false;
+            configuration.loggers.currentWorkingThreads = false;
+            configuration.loggers.tickRate = false;
+        }).build();
+
+        if(scheduling == Network.Scheduling.FREE_RUNNING) {
+            freeRunning(form, division, inters, threads);
+            return;
+        }
+
+        CountDownLatch finished = new CountDownLatch(1);
+        long[] nanos = new long[2];
+        form.tickListener(tick -> {
+            if(tick % 4 == 0) {
+                form.stimulate((int) (tick / 4 % INPUTS), 60);
+            }
+            if(tick == WARM_UP_TICKS) {
+                nanos[0] = System.nanoTime();
+            } else if(tick == WARM_UP_TICKS + MEASURED_TICKS) {
+                nanos[1] = System.nanoTime();
+                finished.countDown();
+            }
+        });
+        form.start();
+        finished.await();
+
+        double nanosPerTick = (nanos[1] - nanos[0]) / (double) MEASURED_TICKS;
+        LOGGER.info(division + " with " + String.format("%,d", inters) + " inter neurons on " + threads + " tick threads: "
+                + String.format("%,.0f", 1_000_000_000d / nanosPerTick) + " ticks/s, "
+                + String.format("%.2f", form.getLoadImbalance()) + " load imbalance");
+        System.exit(0);
+    }
+
+    private static void freeRunning(NetworkForm form, Network.TickDivision division, int inters, int threads) throws InterruptedException {
+        Thread stimulating = new Thread(() -> {
+            for(long i = 0; ; i++) {
+                form.stimulate((int) (i % INPUTS), 60);
+                LockSupport.parkNanos(STIMULATION_NANOS);
+            }
+        }, "Stimulating");
+        stimulating.setDaemon(true);
+        form.start();
+        stimulating.start();
+
+        Thread.sleep(WARM_UP_MILLIS);
+        long transmitted = form.getTransmittedStimulations();
+        Thread.sleep(MEASURED_MILLIS);
+        transmitted = form.getTransmittedStimulations() - transmitted;
+
+        LOGGER.info(division + " with " + String.format("%,d", inters) + " inter neurons on " + threads + " free-running tick threads: "
+                + String.format("%,.0f", transmitted * 1000d / MEASURED_MILLIS) + " stimulations/s, "
+                + String.format("%.2f", form.getLoadImbalance()) + " load imbalance");
+        System.exit(0);
+    }
+}
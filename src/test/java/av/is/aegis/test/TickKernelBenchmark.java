@@ -0,0 +1,76 @@
+package av.is.aegis.test;
+
+import av.is.aegis.Network;
+import av.is.aegis.NetworkBuilder;
+import av.is.aegis.NetworkForm;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Logger;
+
+/**
+ * Compares the ticks per second of a synchronous network ticking its neurons one by one against ticking them
+ * in blocks, for 1,000, 10,000 and 100,000 inter neurons on a single tick thread.
+ *
+ * Every size is measured in a fresh JVM, as the tick threads of a network never stop: run once with
+ * {@code PER_NEURON} and once with {@code BLOCK} as the first argument and the number of inter neurons as the second.
+ * On Java 21 and later, add {@code --add-modules jdk.incubator.vector} to the JVM options to have the blocks
+ * processed with the Vector API.
+ */
+public class TickKernelBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger("TickKernelBenchmark");
+
+    private static final int INPUTS = 3;
+    private static final long WARM_UP_TICKS = 3000;
+    private static final long MEASURED_TICKS = 5000;
+
+    public static void main(String[] args) throws InterruptedException {
+        Network.Ticking ticking = args.length > 0 ? Network.Ticking.valueOf(args[0]) : Network.Ticking.BLOCK;
+        int inters = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+
+        NetworkForm form = NetworkBuilder.builder()
+                .inputs(INPUTS).inters(inters).outputs(2)
+                .visualize(false)
+                .seed(42)
+                .configure(configuration -> {
+            configuration.scheduling = Network.Scheduling.SYNCHRONOUS;
+            configuration.ticking = ticking;
+            configuration.threadSizeForTicking = 1;
+            // Decaying synapses costs the same per marked neuron in both and would hide the difference.
+            configuration.synapseDecaying = false;
+            // Grows quickly enough to mark nearly every neuron during the warm up.
+            configuration.synapsesGrownPerTick = Math.max(16, inters / 10);
+
+            configuration.loggers.stimulations = false;
+            configuration.loggers.memory = false;
+            configuration.loggers.awaitingStimulationQueue = false;
+            configuration.loggers.markedNeurons = false;
+            configuration.loggers.currentWorkingThreads = false;
+            configuration.loggers.tickRate = false;
+        }).build();
+
+        CountDownLatch finished = new CountDownLatch(1);
+        long[] nanos = new long[2];
+        form.tickListener(tick -> {
+            if(tick % 4 == 0) {
+                form.stimulate((int) (tick / 4 % INPUTS), 60);
+            }
+            if(tick == WARM_UP_TICKS) {
+                // Growing is no part of ticking and is kept to a minimum while measuring.
+                form.tune(tuning -> tuning.synapsesGrownPerTick = 1);
+                nanos[0] = System.nanoTime();
+            } else if(tick == WARM_UP_TICKS + MEASURED_TICKS) {
+                nanos[1] = System.nanoTime();
+                finished.countDown();
+            }
+        });
+        form.start();
+        finished.await();
+
+        double nanosPerTick = (nanos[1] - nanos[0]) / (double) MEASURED_TICKS;
+        LOGGER.info(ticking + " with " + String.format("%,d", inters) + " inter neurons on " + System.getProperty("java.version") + ": "
+                + String.format("%,.0f", 1_000_000_000d / nanosPerTick) + " ticks/s, "
+                + String.format("%.2f", nanosPerTick / (INPUTS + inters + 2)) + " ns per neuron and tick");
+        System.exit(0);
+    }
+}
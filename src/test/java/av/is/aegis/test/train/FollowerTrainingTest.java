@@ -222,8 +222,10 @@ public class FollowerTrainingTest {
                         juikit.data("KEY", true);
                         LOGGER.info("Key Pressed: SHIFT");
 
-                        form.config().synapseDecaying = false;
-                        form.config().synapseReinforcing = false;
+                        form.tune(tuning -> {
+                            tuning.synapseDecaying = false;
+                            tuning.synapseReinforcing = false;
+                        });
                     }
                 })
                 .keyReleased((juikit, keyEvent) -> {
@@ -231,8 +233,10 @@ public class FollowerTrainingTest {
                         juikit.data("KEY", false);
                         LOGGER.info("Key Released: SHIFT");
 
-                        form.config().synapseDecaying = true;
-                        form.config().synapseReinforcing = true;
+                        form.tune(tuning -> {
+                            tuning.synapseDecaying = true;
+                            tuning.synapseReinforcing = true;
+                        });
                     }
                 })
                 .keyPressed((juikit, keyEvent) -> {
@@ -177,8 +177,10 @@ public class LineUpTrainingTest {
                         juikit.data("KEY", true);
                         LOGGER.info("Key Pressed: SHIFT");
 
-                        form.config().synapseDecaying = false;
-                        form.config().synapseReinforcing = false;
+                        form.tune(tuning -> {
+                            tuning.synapseDecaying = false;
+                            tuning.synapseReinforcing = false;
+                        });
                     }
                 })
                 .keyReleased((juikit, keyEvent) -> {
@@ -186,8 +188,10 @@ public class LineUpTrainingTest {
                         juikit.data("KEY", false);
                         LOGGER.info("Key Released: SHIFT");
 
-                        form.config().synapseDecaying = true;
-                        form.config().synapseReinforcing = true;
+                        form.tune(tuning -> {
+                            tuning.synapseDecaying = true;
+                            tuning.synapseReinforcing = true;
+                        });
                     }
                 })
                 .keyPressed((juikit, keyEvent) -> {
@@ -0,0 +1,157 @@
+package av.is.aegis.test.train;
+
+import av.is.aegis.Network;
+import av.is.aegis.NetworkForm;
+import av.is.aegis.NetworkLoader;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.logging.Logger;
+
+/**
+ * Accuracy check of the {@link Network.Precision} modes on the trained XOR network of {@link XORTrainingTest}.
+ *
+ * The saved network is loaded once per precision and fed forward side by side in synchronous scheduling with the same seed,
+ * so the precisions only differ by the rounding of the weights. Every gate is stimulated for a number of ticks
+ * as the trainer does, and the output values per gate are summed. A precision passes if it puts every gate on the same
+ * side of the mean output as {@link Network.Precision#FLOAT64} does.
+ *
+ * Run with the path of another network trained by {@link XORTrainingTest} as the first argument to check that one instead.
+ */
+public class XORPrecisionTest {
+
+    private static final Logger LOGGER = Logger.getLogger("XOR (PRECISION)");
+
+    private static final long TICKS_PER_GATE = 1000;
+    private static final int ROUNDS = 3;
+    private static final int GATES = 4;
+
+    public static void main(String[] args) throws InterruptedException {
+        File file = new File(args.length > 0 ? args[0] : "aegis/xor.aegis");
+
+        Network.Precision[] precisions = Network.Precision.values();
+        Run[] runs = new Run[precisions.length];
+        for(int i = 0; i < precisions.length; i++) {
+            runs[i] = new Run(file, precisions[i]);
+        }
+        for(Run run : runs) {
+            run.latch.await();
+        }
+
+        Run reference = runs[0];
+        boolean passed = true;
+        for(Run run : runs) {
+            StringBuilder builder = new StringBuilder(run.precision + ":");
+            double maximumError = 0;
+            boolean same = true;
+            for(int gate = 0; gate < GATES; gate++) {
+                double output = run.outputs[gate].sum();
+                double expected = reference.outputs[gate].sum();
+                builder.append(' ').append(GateInput.values()[gate].getName()).append(' ').append(String.format("%.2f", output));
+                if(expected != 0) {
+                    maximumError = Math.max(maximumError, Math.abs(output - expected) / Math.abs(expected));
+                }
+                same &= run.isHigh(gate) == reference.isHigh(gate);
+            }
+            builder.append(String.format(", at most %.4f%% off FLOAT64", maximumError * 100));
+            builder.append(same ? ", same gates" : ", DIFFERENT GATES");
+            LOGGER.info(builder.toString());
+            passed &= same;
+        }
+        if(reference.total() == 0) {
+            LOGGER.warning("The network produced no outputs; the check is meaningless.");
+        } else if(passed) {
+            LOGGER.info("Every precision separates the gates like FLOAT64.");
+        } else {
+            LOGGER.warning("A precision separates the gates differently from FLOAT64.");
+        }
+        System.exit(0);
+    }
+
+    enum GateInput {
+        ZERO_ZERO("(0, 0)", -50, -50),
+        ONE_ZERO("(1, 0)", 50, -50),
+        ZERO_ONE("(0, 1)", -50, 50),
+        ONE_ONE("(1, 1)", 50, 50);
+
+        private final String name;
+        private final double first;
+        private final double second;
+
+        GateInput(String name, double first, double second) {
+            this.name = name;
+            this.first = first;
+            this.second = second;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        void stimulate(NetworkForm form) {
+            form.stimulate(0, first);
+            form.stimulate(1, second);
+
+            // Kind of Bias
+            form.stimulate(2, 50);
+        }
+    }
+
+    private static class Run {
+
+        private final Network.Precision precision;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private final DoubleAdder[] outputs = new DoubleAdder[GATES];
+        private volatile int gate;
+
+        Run(File file, Network.Precision precision) {
+            this.precision = precision;
+            for(int i = 0; i < GATES; i++) {
+                outputs[i] = new DoubleAdder();
+            }
+
+            NetworkLoader loader = new NetworkLoader(file);
+            NetworkForm form = loader.load();
+
+            Network.Configuration configuration = form.config();
+            configuration.scheduling = Network.Scheduling.SYNCHRONOUS;
+            configuration.threadSizeForTicking = 1;
+            configuration.seed = 42;
+            configuration.precision = precision;
+            configuration.synapseDecaying = false;
+            configuration.synapseReinforcing = false;
+
+            configuration.loggers.stimulations = false;
+            configuration.loggers.memory = false;
+            configuration.loggers.awaitingStimulationQueue = false;
+            configuration.loggers.markedNeurons = false;
+            configuration.loggers.currentWorkingThreads = false;
+            configuration.loggers.tickRate = false;
+
+            form.outputListener((neuron, value) -> outputs[gate].add(value));
+            form.tickListener(tick -> {
+                long step = tick / TICKS_PER_GATE;
+                if(step < (long) ROUNDS * GATES) {
+                    gate = (int) (step % GATES);
+                    GateInput.values()[gate].stimulate(form);
+                } else if(tick == (long) ROUNDS * GATES * TICKS_PER_GATE) {
+                    latch.countDown();
+                }
+            });
+            loader.start();
+        }
+
+        double total() {
+            double total = 0;
+            for(DoubleAdder output : outputs) {
+                total += output.sum();
+            }
+            return total;
+        }
+
+        boolean isHigh(int gate) {
+            return outputs[gate].sum() > total() / GATES;
+        }
+    }
+}
@@ -269,8 +269,10 @@ public class XORTrainingTest {
                         juikit.data("KEY", true);
                         LOGGER.info("Key Pressed: SHIFT");
 
-                        form.config().synapseDecaying = false;
-                        form.config().synapseReinforcing = false;
+                        form.tune(tuning -> {
+                            tuning.synapseDecaying = false;
+                            tuning.synapseReinforcing = false;
+                        });
                     }
                 })
                 .keyReleased((juikit, keyEvent) -> {
@@ -278,8 +280,10 @@ public class XORTrainingTest {
                         juikit.data("KEY", false);
                         LOGGER.info("Key Released: SHIFT");
 
-                        form.config().synapseDecaying = true;
-                        form.config().synapseReinforcing = true;
+                        form.tune(tuning -> {
+                            tuning.synapseDecaying = true;
+                            tuning.synapseReinforcing = true;
+                        });
                     }
                 })
                 .keyPressed((juikit, keyEvent) -> {